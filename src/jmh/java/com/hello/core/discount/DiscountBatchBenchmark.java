@@ -0,0 +1,79 @@
+package com.hello.core.discount;
+
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ - 100만 건 할인 계산: discount 한 건씩 호출 vs discountAll (Vector API) vs discountAll (스칼라 루프)
+ - ./gradlew jmh -Pjmh.includes=DiscountBatchBenchmark
+ - 결과는 100만 건 한 번에 걸린 시간이다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiscountBatchBenchmark {
+
+    private static final int ITEMS = 1_000_000;
+
+    @Param({"rate", "fix"})
+    String policy;
+
+    private DiscountPolicy discountPolicy;
+    private final int[] prices = new int[ITEMS];
+    private final byte[] grades = new byte[ITEMS];
+    private final int[] discounts = new int[ITEMS];
+    // 한 건씩 호출할 때 쓰는 등급별 회원 (grades 와 같은 분포)
+    private final Member[] members = new Member[ITEMS];
+
+    @Setup
+    public void setUp() {
+        discountPolicy = switch (policy) {
+            case "rate" -> new RateDiscountPolicy();
+            case "fix" -> new FixDiscountPolicy();
+            default -> throw new IllegalArgumentException(policy);
+        };
+        Member vip = new Member(1L, "vip", Grade.VIP);
+        Member basic = new Member(2L, "basic", Grade.BASIC);
+        Random random = new Random(21);
+        for (int i = 0; i < ITEMS; i++) {
+            prices[i] = 1_000 + random.nextInt(1_000_000);
+            boolean isVip = random.nextInt(10) == 0;
+            grades[i] = (isVip ? Grade.VIP : Grade.BASIC).code();
+            members[i] = isVip ? vip : basic;
+        }
+    }
+
+    @Benchmark
+    public int[] perCall() {
+        for (int i = 0; i < ITEMS; i++) {
+            discounts[i] = discountPolicy.discount(members[i], prices[i]);
+        }
+        return discounts;
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public int[] batchVector() {
+        discountPolicy.discountAll(prices, grades, discounts);
+        return discounts;
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Ddiscount.vector.disabled=true"})
+    public int[] batchScalar() {
+        discountPolicy.discountAll(prices, grades, discounts);
+        return discounts;
+    }
+}
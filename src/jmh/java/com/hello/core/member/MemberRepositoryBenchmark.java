@@ -0,0 +1,88 @@
+package com.hello.core.member;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ - 저장소 구현별 처리량 비교 (AppConfig 에서 어떤 MemberRepository 를 쓸지 정할 때 참고)
+ - ./gradlew jmh -Pjmh.includes=MemberRepositoryBenchmark
+ - 회원 MEMBERS 명을 미리 넣어 두고, 여러 스레드에서 단건 조회 / 묶음 조회 / 묶음 저장을 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class MemberRepositoryBenchmark {
+
+    private static final int MEMBERS = 100_000;
+    private static final int BATCH = 100;
+
+    @Param({"memory", "longKey", "jdbc"})
+    String repository;
+
+    private MemberRepository memberRepository;
+    private HikariDataSource dataSource;
+
+    @Setup
+    public void setUp() {
+        memberRepository = switch (repository) {
+            case "memory" -> new MemoryMemberRepository();
+            case "longKey" -> new LongKeyMemberRepository();
+            case "jdbc" -> {
+                dataSource = JdbcMemberRepository.pooledDataSource();
+                yield new JdbcMemberRepository(dataSource);
+            }
+            default -> throw new IllegalArgumentException(repository);
+        };
+        List<Member> members = new ArrayList<>(MEMBERS);
+        for (long id = 0; id < MEMBERS; id++) {
+            members.add(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        memberRepository.saveAll(members);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Benchmark
+    public Member findById() {
+        return memberRepository.findById(ThreadLocalRandom.current().nextLong(MEMBERS));
+    }
+
+    @Benchmark
+    public List<Member> findAllById() {
+        List<Long> ids = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            ids.add(ThreadLocalRandom.current().nextLong(MEMBERS));
+        }
+        return memberRepository.findAllById(ids);
+    }
+
+    @Benchmark
+    public void saveAll() {
+        long from = ThreadLocalRandom.current().nextLong(MEMBERS - BATCH);
+        List<Member> members = new ArrayList<>(BATCH);
+        for (long id = from; id < from + BATCH; id++) {
+            members.add(new Member(id, "member" + id, Grade.VIP));
+        }
+        memberRepository.saveAll(members);
+    }
+}
@@ -0,0 +1,78 @@
+package com.hello.core.order;
+
+import com.hello.core.discount.RateDiscountPolicy;
+import com.hello.core.member.CachingMemberRepository;
+import com.hello.core.member.Grade;
+import com.hello.core.member.LongKeyMemberRepository;
+import com.hello.core.member.Member;
+import com.hello.core.member.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ - createOrder 반복 호출 vs createOrders 일괄 호출의 주문 처리량 비교 (주문 1건당 ops)
+ - repository
+    - longKey : LongKeyMemberRepository 를 바로 쓴다.
+    - cached  : 같은 저장소를 CachingMemberRepository 로 감싼다. (조회마다 캐시를 거치는 비용이 일괄 조회 한 번으로 줄어든다)
+ - ./gradlew jmh -Pjmh.includes=OrderBatchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderBatchBenchmark {
+
+    private static final int MEMBERS = 10_000;
+    private static final int ORDERS = 100_000;
+
+    @Param({"longKey", "cached"})
+    String repository;
+
+    private OrderService orderService;
+    private List<OrderRequest> requests;
+
+    @Setup
+    public void setUp() {
+        MemberRepository memberRepository = switch (repository) {
+            case "longKey" -> new LongKeyMemberRepository();
+            case "cached" -> new CachingMemberRepository(new LongKeyMemberRepository());
+            default -> throw new IllegalArgumentException(repository);
+        };
+        for (long id = 0; id < MEMBERS; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 5 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+
+        Random random = new Random(42);
+        requests = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            requests.add(new OrderRequest(random.nextInt(MEMBERS), "item" + (i % 100), 1000 + random.nextInt(50_000)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void createOrderLoop(Blackhole blackhole) {
+        for (OrderRequest request : requests) {
+            blackhole.consume(orderService.createOrder(request.memberId(), request.itemName(), request.itemPrice()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public OrderBatch createOrders() {
+        return orderService.createOrders(requests);
+    }
+}
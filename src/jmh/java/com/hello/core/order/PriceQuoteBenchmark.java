@@ -0,0 +1,54 @@
+package com.hello.core.order;
+
+import com.hello.core.discount.RateDiscountPolicy;
+import com.hello.core.member.Grade;
+import com.hello.core.member.LongKeyMemberRepository;
+import com.hello.core.member.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ - createOrder(Order 할당) vs quote(호출자 버퍼) 비교
+ - ./gradlew jmh -Pjmh.includes=PriceQuoteBenchmark
+ - gc 프로파일러 결과의 gc.alloc.rate.norm 이 주문 하나당 할당 바이트다. quote 는 0 B/op 이어야 한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PriceQuoteBenchmark {
+
+    private static final int MEMBERS = 1024;
+
+    private OrderService orderService;
+    private final PriceQuote quote = new PriceQuote();
+    private long next;
+
+    @Setup
+    public void setUp() {
+        LongKeyMemberRepository memberRepository = new LongKeyMemberRepository();
+        for (long id = 0; id < MEMBERS; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+    }
+
+    // Order 를 돌려줘서 실제 호출자처럼 Order 가 밖으로 나가게 한다. (탈출 분석으로 할당이 사라지지 않게)
+    @Benchmark
+    public Order createOrder() {
+        long memberId = next++ & (MEMBERS - 1);
+        return orderService.createOrder(memberId, "itemA", 10000);
+    }
+
+    @Benchmark
+    public int quote() {
+        long memberId = next++ & (MEMBERS - 1);
+        return orderService.quote(memberId, 10000, quote).calculatePrice();
+    }
+}
@@ -2,6 +2,7 @@ package com.hello.core;
 
 import com.hello.core.discount.DiscountPolicy;
 import com.hello.core.discount.RateDiscountPolicy;
+import com.hello.core.member.CachingMemberRepositoryPostProcessor;
 import com.hello.core.member.MemberRepository;
 import com.hello.core.member.MemberService;
 import com.hello.core.member.MemberServiceImpl;
@@ -10,8 +11,11 @@ import com.hello.core.order.OrderService;
 import com.hello.core.order.OrderServiceImpl;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
 @Configuration
+// member.cache.enabled=true 이면 memberRepository 빈을 캐시 데코레이터로 감싼다.
+@Import(CachingMemberRepositoryPostProcessor.class)
 public class AppConfig {
 
     @Bean
@@ -23,6 +27,7 @@ public class AppConfig {
     @Bean
     public MemberRepository memberRepository() {
         System.out.println("call AppConfig.memberRepository");
+        // DB 가 필요한 환경이면 new JdbcMemberRepository(dataSource) 로 바꾼다. (처리량 비교는 MemberRepositoryBenchmark)
         return new MemoryMemberRepository();
     }
 
@@ -0,0 +1,135 @@
+package com.hello.core.discount;
+
+import com.hello.core.member.Member;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ - 여러 할인 정책을 순서대로 묶어서 하나의 DiscountPolicy 로 쓰는 합성 정책
+ - OrderServiceImpl 은 DiscountPolicy 하나만 받으므로, 등급 할인 + 캠페인 정액 할인처럼 겹쳐 주려면 이걸 넘긴다.
+ - 묶는 방식(Mode)
+    - BEST_OF      : 가장 큰 할인 하나만 준다.
+    - SUM_WITH_CAP : 할인을 모두 더하되 cap 을 넘지 않는다.
+    - FIRST_MATCH  : 앞에서부터 처음으로 0 보다 큰 할인을 주는 정책 하나만 쓴다.
+ - 할인은 항상 min(cap, price) 를 넘지 않는다. 그 한도에 닿으면 뒤 정책은 부르지 않는다. (short-circuit)
+ - discount(member, price, contributions) 로 부르면 단계별로 실제 적용된 금액을 contributions[i] 에 적는다. (감사 기록용)
+   부르지 않았거나 반영되지 않은 단계는 0 이다. 버퍼는 호출하는 쪽 것이라 계산 중 할당이 없다.
+ - 정책 목록은 생성할 때 배열로 굳혀 둔다.
+ - @Component 로 등록하지 않는다. 스프링에서는 DiscountChainConfig 가 "discountChain" 빈으로 만들어 OrderServiceImpl 에 넣는다.
+ */
+public class DiscountChain implements DiscountPolicy {
+
+    public enum Mode {
+        BEST_OF,
+        SUM_WITH_CAP,
+        FIRST_MATCH
+    }
+
+    public static final int NO_CAP = Integer.MAX_VALUE;
+
+    private final Mode mode;
+    private final DiscountPolicy[] steps;
+    private final int cap;
+
+    public DiscountChain(Mode mode, List<? extends DiscountPolicy> steps, int cap) {
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("할인 정책이 하나 이상 있어야 합니다.");
+        }
+        if (cap < 0) {
+            throw new IllegalArgumentException("할인 한도는 0 이상이어야 합니다: " + cap);
+        }
+        this.mode = mode;
+        this.steps = steps.toArray(new DiscountPolicy[0]);
+        this.cap = cap;
+    }
+
+    public static DiscountChain of(Mode mode, int cap, DiscountPolicy... steps) {
+        return new DiscountChain(mode, Arrays.asList(steps), cap);
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        return evaluate(member, price, null);
+    }
+
+    /**
+     * @param contributions 길이가 stepCount() 이상인 버퍼, 단계별 적용 금액을 덮어쓴다.
+     */
+    public int discount(Member member, int price, int[] contributions) {
+        if (contributions.length < steps.length) {
+            throw new IllegalArgumentException(
+                    "contributions 길이(" + contributions.length + ")가 단계 수(" + steps.length + ")보다 작습니다.");
+        }
+        Arrays.fill(contributions, 0, steps.length, 0);
+        return evaluate(member, price, contributions);
+    }
+
+    public int stepCount() {
+        return steps.length;
+    }
+
+    public DiscountPolicy step(int index) {
+        return steps[index];
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    private int evaluate(Member member, int price, int[] contributions) {
+        int limit = Math.max(0, Math.min(cap, price));
+        return switch (mode) {
+            case SUM_WITH_CAP -> sumWithCap(member, price, limit, contributions);
+            case BEST_OF -> bestOf(member, price, limit, contributions);
+            case FIRST_MATCH -> firstMatch(member, price, limit, contributions);
+        };
+    }
+
+    private int sumWithCap(Member member, int price, int limit, int[] contributions) {
+        int total = 0;
+        for (int i = 0; i < steps.length && total < limit; i++) {
+            int applied = Math.min(Math.max(0, steps[i].discount(member, price)), limit - total);
+            total += applied;
+            if (contributions != null) {
+                contributions[i] = applied;
+            }
+        }
+        return total;
+    }
+
+    private int bestOf(Member member, int price, int limit, int[] contributions) {
+        int best = 0;
+        int bestStep = -1;
+        for (int i = 0; i < steps.length; i++) {
+            int discount = steps[i].discount(member, price);
+            if (discount > best) {
+                best = discount;
+                bestStep = i;
+                // 한도에 닿았으면 뒤에서 더 좋은 할인이 나올 수 없다.
+                if (best >= limit) {
+                    break;
+                }
+            }
+        }
+        best = Math.min(best, limit);
+        if (contributions != null && bestStep >= 0) {
+            contributions[bestStep] = best;
+        }
+        return best;
+    }
+
+    private int firstMatch(Member member, int price, int limit, int[] contributions) {
+        for (int i = 0; i < steps.length; i++) {
+            int discount = steps[i].discount(member, price);
+            if (discount > 0) {
+                int applied = Math.min(discount, limit);
+                if (contributions != null) {
+                    contributions[i] = applied;
+                }
+                return applied;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,45 @@
+package com.hello.core.discount;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/*
+ - 시작할 때 DiscountPolicy 빈들을 묶어서 DiscountChain 빈("discountChain") 하나를 만든다.
+ - discount.chain.enabled=true 일 때만 등록된다. 등록되면 OrderServiceImpl 이 생성자에서 기본 할인 정책 대신 이 체인을 고른다.
+ - 설정
+    - discount.chain.policies : 묶을 빈 이름, 적은 순서대로 평가한다. (기본 rateDiscountPolicy,fixDiscountPolicy)
+    - discount.chain.mode     : BEST_OF, SUM_WITH_CAP, FIRST_MATCH (기본 SUM_WITH_CAP)
+    - discount.chain.cap      : 할인 한도, 비우면 한도 없음
+ - 없는 빈 이름을 적으면 시작할 때 실패한다. (주문 중에 알게 되지 않도록)
+ */
+@Configuration
+@ConditionalOnProperty(name = "discount.chain.enabled", havingValue = "true")
+public class DiscountChainConfig {
+
+    @Bean
+    @Qualifier("discountChain")
+    public DiscountChain discountChain(
+            Map<String, DiscountPolicy> policies,
+            @Value("${discount.chain.policies:rateDiscountPolicy,fixDiscountPolicy}") List<String> names,
+            @Value("${discount.chain.mode:SUM_WITH_CAP}") DiscountChain.Mode mode,
+            @Value("${discount.chain.cap:#{null}}") Integer cap
+    ) {
+        List<DiscountPolicy> steps = new ArrayList<>(names.size());
+        for (String name : names) {
+            DiscountPolicy policy = policies.get(name.trim());
+            if (policy == null || policy instanceof DiscountChain) {
+                throw new IllegalArgumentException(
+                        "discount.chain.policies 에 묶을 수 없는 할인 정책입니다: " + name + ", 등록된 정책 = " + policies.keySet());
+            }
+            steps.add(policy);
+        }
+        return new DiscountChain(mode, steps, cap == null ? DiscountChain.NO_CAP : cap);
+    }
+}
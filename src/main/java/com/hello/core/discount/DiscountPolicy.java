@@ -1,5 +1,6 @@
 package com.hello.core.discount;
 
+import com.hello.core.member.Grade;
 import com.hello.core.member.Member;
 
 public interface DiscountPolicy {
@@ -9,5 +10,30 @@ public interface DiscountPolicy {
      */
     int discount(Member member, int price);
 
+    /**
+     * 일괄 할인 계산. out[i] = i 번째 상품(prices[i], 회원 등급 grades[i])의 할인 금액
+     * grades 는 Grade.code(), 등급 없는 회원은 -1
+     * 기본 구현은 등급마다 Member 하나를 만들어 두고 discount 를 한 건씩 부른다.
+     */
+    default void discountAll(int[] prices, byte[] grades, int[] out) {
+        checkBatch(prices, grades, out);
+        Grade[] values = Grade.values();
+        Member[] byCode = new Member[values.length];
+        for (Grade grade : values) {
+            byCode[grade.code()] = new Member(0L, null, grade);
+        }
+        Member noGrade = new Member(0L, null, null);
+        for (int i = 0; i < prices.length; i++) {
+            byte code = grades[i];
+            out[i] = discount(code < 0 ? noGrade : byCode[code], prices[i]);
+        }
+    }
 
+    // discountAll 구현체가 같이 쓰는 길이 검사
+    static void checkBatch(int[] prices, byte[] grades, int[] out) {
+        if (grades.length != prices.length || out.length < prices.length) {
+            throw new IllegalArgumentException("배열 길이가 맞지 않습니다. prices=" + prices.length
+                    + ", grades=" + grades.length + ", out=" + out.length);
+        }
+    }
 }
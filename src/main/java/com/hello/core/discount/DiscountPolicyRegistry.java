@@ -0,0 +1,168 @@
+package com.hello.core.discount;
+
+import com.hello.core.member.Member;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ - 할인 정책을 코드(빈 이름)로 등록해 두고 정수 번호(slot)로 호출하는 레지스트리 (스프링 빈)
+ - AllBeanTest.DiscountService 처럼 호출할 때마다 Map<String, DiscountPolicy> 에서 문자열로 찾으면 매번 해시 계산과 equals 가 든다.
+   여기서는 코드 -> slot 변환을 시작할 때(또는 register 할 때) 한 번만 하고, 호출은 배열 인덱스로 한다.
+ - 정책마다 호출 수를 LongAdder 로 센다. (calls())
+ - split(...) 으로 여러 정책에 가중치대로 나눠 보내는 A/B 분배 정책을 만든다. 고르는 난수는 ThreadLocalRandom 이라 스레드끼리 경합하지 않는다.
+ - 등록은 드물기 때문에 배열을 복사해서 통째로 바꾼다. (copy-on-write) 호출하는 쪽은 락 없이 volatile 읽기 한 번이다.
+ */
+@Component
+public class DiscountPolicyRegistry {
+
+    private volatile Table table = new Table(new String[0], new DiscountPolicy[0], new LongAdder[0]);
+
+    // 스프링이 DiscountPolicy 빈을 (빈 이름 -> 빈) 으로 모두 넘겨준다.
+    public DiscountPolicyRegistry(Map<String, DiscountPolicy> policies) {
+        policies.forEach(this::register);
+    }
+
+    /**
+     * 새 코드면 다음 번호를, 이미 있는 코드면 그 번호에 정책을 바꿔 넣는다. (호출 수는 유지)
+     *
+     * @return slot 번호
+     */
+    public synchronized int register(String code, DiscountPolicy policy) {
+        Table current = table;
+        for (int slot = 0; slot < current.codes.length; slot++) {
+            if (current.codes[slot].equals(code)) {
+                DiscountPolicy[] policies = current.policies.clone();
+                policies[slot] = policy;
+                table = new Table(current.codes, policies, current.calls);
+                return slot;
+            }
+        }
+        int slot = current.codes.length;
+        String[] codes = Arrays.copyOf(current.codes, slot + 1);
+        DiscountPolicy[] policies = Arrays.copyOf(current.policies, slot + 1);
+        LongAdder[] calls = Arrays.copyOf(current.calls, slot + 1);
+        codes[slot] = code;
+        policies[slot] = policy;
+        calls[slot] = new LongAdder();
+        table = new Table(codes, policies, calls);
+        return slot;
+    }
+
+    /**
+     * 시작할 때 한 번 불러서 번호를 받아 두고, 호출은 discount(slot, ...) 로 한다.
+     *
+     * @throws IllegalArgumentException 등록되지 않은 코드
+     */
+    public int slotOf(String code) {
+        Integer slot = table.slots.get(code);
+        if (slot == null) {
+            throw new IllegalArgumentException("등록되지 않은 할인 정책입니다: " + code);
+        }
+        return slot;
+    }
+
+    public int discount(int slot, Member member, int price) {
+        Table current = table;
+        current.calls[slot].increment();
+        return current.policies[slot].discount(member, price);
+    }
+
+    public DiscountPolicy policy(int slot) {
+        return table.policies[slot];
+    }
+
+    public int size() {
+        return table.codes.length;
+    }
+
+    /**
+     * 정책 코드별 누적 호출 수 (split 으로 나간 호출 포함)
+     */
+    public Map<String, Long> calls() {
+        Table current = table;
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int slot = 0; slot < current.codes.length; slot++) {
+            result.put(current.codes[slot], current.calls[slot].sum());
+        }
+        return result;
+    }
+
+    /**
+     * 코드 -> 가중치 로 나눠 보내는 정책을 만든다. 예: split(Map.of("rateDiscountPolicy", 90, "fixDiscountPolicy", 10))
+     * 코드는 여기서 slot 으로 바꿔 두므로 호출할 때 문자열을 찾지 않는다.
+     */
+    public Split split(Map<String, Integer> weights) {
+        int[] slots = new int[weights.size()];
+        int[] thresholds = new int[weights.size()];
+        int total = 0;
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            if (entry.getValue() <= 0) {
+                throw new IllegalArgumentException("가중치는 양수여야 합니다: " + entry);
+            }
+            total = Math.addExact(total, entry.getValue());
+            slots[i] = slotOf(entry.getKey());
+            thresholds[i] = total;
+            i++;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("나눠 보낼 정책이 없습니다.");
+        }
+        return new Split(slots, thresholds, total);
+    }
+
+    /**
+     * 가중치대로 정책을 골라 부르는 할인 정책 (A/B 분배)
+     */
+    public final class Split implements DiscountPolicy {
+
+        private final int[] slots;
+        // 누적 가중치, 난수가 thresholds[i] 미만인 첫 i 를 고른다.
+        private final int[] thresholds;
+        private final int total;
+
+        private Split(int[] slots, int[] thresholds, int total) {
+            this.slots = slots;
+            this.thresholds = thresholds;
+            this.total = total;
+        }
+
+        @Override
+        public int discount(Member member, int price) {
+            return DiscountPolicyRegistry.this.discount(pick(), member, price);
+        }
+
+        // 다음 호출이 갈 slot
+        public int pick() {
+            int r = ThreadLocalRandom.current().nextInt(total);
+            int i = 0;
+            while (thresholds[i] <= r) {
+                i++;
+            }
+            return slots[i];
+        }
+    }
+
+    private static final class Table {
+        final String[] codes;
+        final DiscountPolicy[] policies;
+        final LongAdder[] calls;
+        final Map<String, Integer> slots;
+
+        Table(String[] codes, DiscountPolicy[] policies, LongAdder[] calls) {
+            this.codes = codes;
+            this.policies = policies;
+            this.calls = calls;
+            this.slots = new HashMap<>();
+            for (int slot = 0; slot < codes.length; slot++) {
+                slots.put(codes[slot], slot);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.hello.core.discount;
+
+import com.hello.core.member.Grade;
+
+/**
+ * 할인 규칙 하나
+ * <pre>
+ * 한 줄 형식: 등급, 최소 가격, 최대 가격, 종류, 값, 최대 할인액
+ *   VIP, 0, *, PERCENT, 10, *        VIP 는 10% 할인
+ *   *, 100000, *, FIXED, 3000, *     10만원 이상은 등급과 관계없이 3000원 할인
+ *   VIP, 0, 50000, PERCENT, 20, 5000 VIP 5만원 미만은 20%, 최대 5000원
+ * '*' 는 모든 등급 / 상한 없음 / 최대 할인액 없음
+ * </pre>
+ *
+ * @param grade    대상 등급, null 이면 모든 회원 (등급 없는 회원 포함)
+ * @param minPrice 이 가격 이상에 적용
+ * @param maxPrice 이 가격 미만에 적용, 상한이 없으면 Integer.MAX_VALUE
+ * @param value    PERCENT 면 할인율(%), FIXED 면 할인 금액
+ * @param cap      최대 할인액, 없으면 Integer.MAX_VALUE
+ */
+public record DiscountRule(Grade grade, int minPrice, int maxPrice, Type type, int value, int cap) {
+
+    public enum Type {
+        PERCENT,
+        FIXED
+    }
+
+    private static final String ANY = "*";
+
+    public DiscountRule {
+        if (minPrice < 0 || maxPrice <= minPrice) {
+            throw new IllegalArgumentException("잘못된 가격 구간입니다: [" + minPrice + ", " + maxPrice + ")");
+        }
+        if (value < 0 || cap < 0 || (type == Type.PERCENT && value > 100)) {
+            throw new IllegalArgumentException("잘못된 할인 값입니다: " + type + " " + value + ", cap " + cap);
+        }
+    }
+
+    public static DiscountRule percent(Grade grade, int percent) {
+        return new DiscountRule(grade, 0, Integer.MAX_VALUE, Type.PERCENT, percent, Integer.MAX_VALUE);
+    }
+
+    public static DiscountRule fixed(Grade grade, int amount) {
+        return new DiscountRule(grade, 0, Integer.MAX_VALUE, Type.FIXED, amount, Integer.MAX_VALUE);
+    }
+
+    public DiscountRule withPriceRange(int minPrice, int maxPrice) {
+        return new DiscountRule(grade, minPrice, maxPrice, type, value, cap);
+    }
+
+    public DiscountRule withCap(int cap) {
+        return new DiscountRule(grade, minPrice, maxPrice, type, value, cap);
+    }
+
+    public boolean appliesTo(Grade memberGrade, int price) {
+        return (grade == null || grade == memberGrade) && price >= minPrice && price < maxPrice;
+    }
+
+    /**
+     * 위 형식의 한 줄을 읽는다.
+     *
+     * @throws IllegalArgumentException 형식이 맞지 않는 경우
+     */
+    public static DiscountRule parse(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("할인 규칙은 6개 항목이어야 합니다: " + line);
+        }
+        try {
+            return new DiscountRule(
+                    ANY.equals(fields[0].trim()) ? null : Grade.valueOf(fields[0].trim()),
+                    Integer.parseInt(fields[1].trim()),
+                    boundOrMax(fields[2]),
+                    Type.valueOf(fields[3].trim()),
+                    Integer.parseInt(fields[4].trim()),
+                    boundOrMax(fields[5]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("할인 규칙을 읽을 수 없습니다: " + line, e);
+        }
+    }
+
+    private static int boundOrMax(String field) {
+        String value = field.trim();
+        return ANY.equals(value) ? Integer.MAX_VALUE : Integer.parseInt(value);
+    }
+}
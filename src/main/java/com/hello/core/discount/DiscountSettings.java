@@ -0,0 +1,59 @@
+package com.hello.core.discount;
+
+import java.util.Properties;
+
+/**
+ * 실행 중에 바꿀 수 있는 할인 값의 스냅샷 (바뀌지 않는 값, 바꿀 때는 새 스냅샷을 만든다)
+ * <pre>
+ * 파일 형식 (properties)
+ *   discount.rate-percent=10
+ *   discount.fix-amount=1000
+ * </pre>
+ *
+ * @param version     DiscountSettingsHolder 가 게시할 때마다 1씩 늘린다.
+ * @param ratePercent RateDiscountPolicy 의 VIP 할인율(%)
+ * @param fixAmount   FixDiscountPolicy 의 VIP 할인 금액
+ */
+public record DiscountSettings(long version, int ratePercent, int fixAmount) {
+
+    public static final DiscountSettings DEFAULTS = new DiscountSettings(0, 10, 1000);
+
+    public DiscountSettings {
+        if (ratePercent < 0 || ratePercent > 100 || fixAmount < 0) {
+            throw new IllegalArgumentException(
+                    "잘못된 할인 설정입니다. ratePercent=" + ratePercent + ", fixAmount=" + fixAmount);
+        }
+    }
+
+    /**
+     * 빠진 항목은 base 의 값을 쓴다.
+     *
+     * @throws IllegalArgumentException 숫자가 아니거나 범위를 벗어난 경우
+     */
+    public static DiscountSettings from(Properties properties, DiscountSettings base) {
+        return new DiscountSettings(
+                base.version,
+                intValue(properties, "discount.rate-percent", base.ratePercent),
+                intValue(properties, "discount.fix-amount", base.fixAmount));
+    }
+
+    boolean sameValues(DiscountSettings other) {
+        return ratePercent == other.ratePercent && fixAmount == other.fixAmount;
+    }
+
+    DiscountSettings withVersion(long version) {
+        return new DiscountSettings(version, ratePercent, fixAmount);
+    }
+
+    private static int intValue(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " 값이 숫자가 아닙니다: " + value, e);
+        }
+    }
+}
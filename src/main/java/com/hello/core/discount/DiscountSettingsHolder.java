@@ -0,0 +1,49 @@
+package com.hello.core.discount;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/*
+ - 지금 쓰는 할인 설정(DiscountSettings)을 들고 있는 곳 (스프링 빈)
+ - 할인 계산은 current() 로 volatile 읽기 한 번만 하고 락을 잡지 않는다.
+ - 바꿀 때는 새 스냅샷을 만들어 AtomicReference 를 통째로 바꾸고 version 을 1 올린다.
+   계산 도중에 설정이 바뀌어도 한 번의 계산은 처음 읽은 스냅샷 하나만 쓴다. (할인율과 금액이 섞이지 않는다)
+ - 값을 바꾸는 곳: DiscountSettingsWatcher(파일), DiscountSettingsController(HTTP), 또는 update 직접 호출
+ */
+@Component
+public class DiscountSettingsHolder {
+
+    private final AtomicReference<DiscountSettings> current;
+
+    public DiscountSettingsHolder() {
+        this(DiscountSettings.DEFAULTS);
+    }
+
+    public DiscountSettingsHolder(DiscountSettings initial) {
+        this.current = new AtomicReference<>(initial);
+    }
+
+    public DiscountSettings current() {
+        return current.get();
+    }
+
+    /**
+     * @return 게시된 스냅샷 (version 이 붙은 값)
+     */
+    public DiscountSettings update(int ratePercent, int fixAmount) {
+        return update(previous -> new DiscountSettings(previous.version(), ratePercent, fixAmount));
+    }
+
+    /**
+     * 값이 그대로면 게시하지 않는다. (파일 저장 한 번에 변경 알림이 여러 번 와도 version 은 한 번만 오른다)
+     * change 는 경합하면 다시 불릴 수 있으므로 부작용이 없어야 한다.
+     */
+    public DiscountSettings update(UnaryOperator<DiscountSettings> change) {
+        return current.updateAndGet(previous -> {
+            DiscountSettings next = change.apply(previous);
+            return next.sameValues(previous) ? previous : next.withVersion(previous.version() + 1);
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package com.hello.core.discount;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Properties;
+
+/*
+ - 할인 설정 파일(discount.settings.file)을 WatchService 로 지켜보다가 바뀌면 다시 읽어서 DiscountSettingsHolder 에 게시한다.
+ - 재배포나 컨텍스트 새로고침 없이 캠페인 값을 바꿀 수 있다. (JIT 로 데워진 JVM 을 그대로 쓴다)
+ - 파일 형식은 DiscountSettings 참고, 빠진 항목은 지금 값을 유지한다.
+ - 읽다가 실패하면(형식 오류, 쓰는 도중 등) 이전 설정을 그대로 두고 다음 변경을 기다린다.
+ - 편집기가 임시 파일을 만든 뒤 이름을 바꾸는 경우도 있어서 파일이 아니라 디렉토리를 지켜보고 파일 이름으로 거른다.
+ - discount.settings.file 이 있을 때만 빈으로 등록된다.
+ */
+@Component
+@ConditionalOnProperty(name = "discount.settings.file")
+public class DiscountSettingsWatcher implements AutoCloseable {
+
+    private final Path file;
+    private final DiscountSettingsHolder holder;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    public DiscountSettingsWatcher(@Value("${discount.settings.file}") Path file, DiscountSettingsHolder holder)
+            throws IOException {
+        this.file = file.toAbsolutePath();
+        this.holder = holder;
+        this.watchService = this.file.getFileSystem().newWatchService();
+        try {
+            this.file.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+        // 등록한 뒤에 처음 읽는다. 먼저 읽으면 등록 전에 바뀐 내용을 다음 변경 때까지 놓친다.
+        reload();
+        this.thread = Thread.ofPlatform().daemon().name("discount-settings-watcher").start(this::watchLoop);
+    }
+
+    /**
+     * 파일을 다시 읽어 게시한다.
+     *
+     * @return 게시했으면 true, 파일이 없거나 읽을 수 없으면 false (이전 설정 유지)
+     */
+    public boolean reload() {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            DiscountSettings published = holder.update(previous -> DiscountSettings.from(properties, previous));
+            System.out.println("할인 설정 적용 = " + published);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("할인 설정을 읽지 못해 이전 설정을 유지합니다. file = " + file + ", error = " + e.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        Path name = file.getFileName();
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                // OVERFLOW 는 이벤트가 유실된 것이라 일단 다시 읽는다.
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) {
+                    changed = true;
+                }
+            }
+            if (changed) {
+                reload();
+            }
+            if (!key.reset()) {
+                return;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.hello.core.discount;
 
 import com.hello.core.member.Grade;
 import com.hello.core.member.Member;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
@@ -27,14 +28,41 @@ import org.springframework.stereotype.Component;
 
 @Component
 //@Qualifier("fixDiscountPolicy")
-public class FixDiscountPolicy implements DiscountPolicy {
-    private int discountFixAmount = 1000;
+public class FixDiscountPolicy implements PureDiscountPolicy {
+    // 할인 금액은 DiscountSettingsHolder 에서 읽는다. 스프링 빈이 없으면 기본값(1000원) 고정
+    private DiscountSettingsHolder discountSettings = new DiscountSettingsHolder();
+
+    @Autowired(required = false)
+    public void setDiscountSettings(DiscountSettingsHolder discountSettings) {
+        this.discountSettings = discountSettings;
+    }
+
+    @Override
+    public long configurationVersion() {
+        return discountSettings.current().version();
+    }
+
     @Override
     public int discount(Member member, int price) {
         if (member.getGrade() == Grade.VIP) {
-            return  discountFixAmount;
+            return discountSettings.current().fixAmount();
         } else {
             return 0;
         }
     }
+
+    // --add-modules jdk.incubator.vector 로 실행하면 SIMD, 아니면 같은 계산을 스칼라 루프로 한다.
+    @Override
+    public void discountAll(int[] prices, byte[] grades, int[] out) {
+        DiscountPolicy.checkBatch(prices, grades, out);
+        byte vip = Grade.VIP.code();
+        int discountFixAmount = discountSettings.current().fixAmount();
+        if (VectorDiscounts.ENABLED) {
+            VectorDiscounts.fixedFor(vip, discountFixAmount, prices, grades, out);
+            return;
+        }
+        for (int i = 0; i < prices.length; i++) {
+            out[i] = grades[i] == vip ? discountFixAmount : 0;
+        }
+    }
 }
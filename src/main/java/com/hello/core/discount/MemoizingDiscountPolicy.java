@@ -0,0 +1,145 @@
+package com.hello.core.discount;
+
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ - PureDiscountPolicy 의 결과를 (등급, 가격) 으로 기억해 두는 데코레이터 (쓰고 싶은 곳에서 직접 감싼다)
+ - 상품 가격이 몇천 가지뿐이라 같은 (등급, 가격) 계산이 수백만 번 반복된다. 규칙이 많은 정책일수록 효과가 크다.
+ - 캐시 구조
+    - 칸 수가 고정(2의 거듭제곱)인 direct-mapped 표, 칸마다 long 세 개 (stamp, key, data) 를 배열 하나에 이어 둔다.
+    - key  = 등급 칸(1바이트) + 가격(4바이트) + 사용 표시 비트
+    - data = 할인 금액(하위 32비트) + 설정 version(상위 32비트)
+    - 같은 칸에 다른 key 가 오면 덮어쓴다. (크기가 늘지 않는다)
+ - 칸마다 seqlock
+    - stamp 가 짝수면 안정된 상태, 홀수면 쓰는 중이다.
+    - 쓰는 쪽은 stamp 를 CAS 로 홀수로 만든 뒤 key, data 를 쓰고 다시 짝수로 올린다. CAS 에 실패하면 (다른 스레드가 쓰는 중) 기다리지 않고 저장을 건너뛴다.
+    - 읽는 쪽은 stamp 를 읽고, key, data 를 읽은 뒤 stamp 를 다시 읽어서 같을 때만 결과를 쓴다.
+      쓰는 도중이거나 중간에 바뀌었으면 miss 로 보고 원래 정책으로 계산한다. (금액이 "아마 맞는" 경우는 없다)
+ - 무효화
+    - 칸에 설정 version 을 같이 적어 두고, 호출할 때 지금 version 과 다르면 miss 로 본다.
+      그래서 설정이 바뀌면 따로 지우지 않아도 예전 결과는 쓰이지 않는다.
+    - version 은 계산하기 전에 읽는다. 계산 도중 설정이 바뀌면 새 값이 옛 version 으로 적히지만, 옛 값이 새 version 으로 적히지는 않는다.
+    - invalidate() 는 칸마다 seqlock 을 잡고 key, data 를 모두 지운다.
+ - stats() 로 적중률을 볼 수 있다.
+ */
+public class MemoizingDiscountPolicy implements DiscountPolicy {
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private static final long USED = 1L << 40;
+    // Grade.code() 는 0 이상이므로 등급 없음은 0xFF 칸에 둔다.
+    private static final int NO_GRADE_CODE = 0xFF;
+
+    // 칸 하나의 long 개수와 칸 안의 위치
+    private static final int STRIDE = 3;
+    private static final int STAMP = 0;
+    private static final int KEY = 1;
+    private static final int DATA = 2;
+
+    private final PureDiscountPolicy delegate;
+    private final AtomicLongArray table;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public MemoizingDiscountPolicy(PureDiscountPolicy delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    public MemoizingDiscountPolicy(PureDiscountPolicy delegate, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("캐시 칸 수는 0보다 커야 합니다: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        this.delegate = delegate;
+        this.table = new AtomicLongArray(size * STRIDE);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        Grade grade = member.getGrade();
+        long key = USED | (long) (grade == null ? NO_GRADE_CODE : grade.code()) << 32 | Integer.toUnsignedLong(price);
+        int version = (int) delegate.configurationVersion();
+        int base = slotOf(key) * STRIDE;
+
+        long stamp = table.getAcquire(base + STAMP);
+        if ((stamp & 1) == 0) {
+            long storedKey = table.getOpaque(base + KEY);
+            long stored = table.getOpaque(base + DATA);
+            // key, data 를 읽은 것이 stamp 를 다시 읽는 것보다 뒤로 밀리지 않게 한다.
+            VarHandle.acquireFence();
+            if (table.getOpaque(base + STAMP) == stamp && storedKey == key && (int) (stored >>> 32) == version) {
+                hits.increment();
+                return (int) stored;
+            }
+        }
+        misses.increment();
+        int discount = delegate.discount(member, price);
+        store(base, key, (long) version << 32 | Integer.toUnsignedLong(discount));
+        return discount;
+    }
+
+    /**
+     * 기억해 둔 결과를 모두 버린다. (설정 version 을 쓰지 않는 변경이 있을 때)
+     */
+    public void invalidate() {
+        for (int base = 0; base < table.length(); base += STRIDE) {
+            long stamp;
+            while (((stamp = table.get(base + STAMP)) & 1) != 0 || !table.compareAndSet(base + STAMP, stamp, stamp + 1)) {
+                Thread.onSpinWait();
+            }
+            VarHandle.storeStoreFence();
+            table.setOpaque(base + KEY, 0);
+            table.setOpaque(base + DATA, 0);
+            table.setRelease(base + STAMP, stamp + 2);
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public PureDiscountPolicy getDelegate() {
+        return delegate;
+    }
+
+    public MemoStats stats() {
+        return new MemoStats(hits.sum(), misses.sum());
+    }
+
+    // 다른 스레드가 같은 칸에 쓰는 중이면 기다리지 않고 건너뛴다. (다음 호출에서 다시 채워진다)
+    private void store(int base, long key, long entry) {
+        long stamp = table.get(base + STAMP);
+        if ((stamp & 1) != 0 || !table.compareAndSet(base + STAMP, stamp, stamp + 1)) {
+            return;
+        }
+        // 홀수 stamp 가 key, data 보다 먼저 보이게 한다.
+        VarHandle.storeStoreFence();
+        table.setOpaque(base + KEY, key);
+        table.setOpaque(base + DATA, entry);
+        table.setRelease(base + STAMP, stamp + 2);
+    }
+
+    private int slotOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    /**
+     * 누적 적중 통계
+     */
+    public record MemoStats(long hits, long misses) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 1.0 : (double) hits / requests;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.hello.core.discount;
+
+/**
+ * 할인 금액이 (회원 등급, 가격) 과 설정만으로 정해지는 할인 정책 (회원 id, 이름, 시각, 호출 횟수 등에 따라 달라지지 않는다)
+ * 이 약속을 지키는 정책만 MemoizingDiscountPolicy 로 결과를 기억해 둘 수 있다.
+ */
+public interface PureDiscountPolicy extends DiscountPolicy {
+
+    /**
+     * 할인 설정이 바뀔 때마다 달라지는 값. 바뀌면 기억해 둔 결과를 버린다.
+     * 설정이 바뀌지 않는 정책은 그대로 0 을 돌려준다.
+     */
+    default long configurationVersion() {
+        return 0;
+    }
+}
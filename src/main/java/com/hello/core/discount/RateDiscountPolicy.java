@@ -3,6 +3,7 @@ package com.hello.core.discount;
 import com.hello.core.annotation.MainDiscountPolicy;
 import com.hello.core.member.Grade;
 import com.hello.core.member.Member;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
@@ -11,15 +12,42 @@ import org.springframework.stereotype.Component;
 @MainDiscountPolicy
 //@Qualifier("mainDiscountPolicy")
 @Primary
-public class RateDiscountPolicy implements DiscountPolicy {
+public class RateDiscountPolicy implements PureDiscountPolicy {
+
+    // 할인율은 DiscountSettingsHolder 에서 읽는다. 스프링 빈이 없으면 기본값(10%) 고정
+    private DiscountSettingsHolder discountSettings = new DiscountSettingsHolder();
+
+    @Autowired(required = false)
+    public void setDiscountSettings(DiscountSettingsHolder discountSettings) {
+        this.discountSettings = discountSettings;
+    }
+
+    @Override
+    public long configurationVersion() {
+        return discountSettings.current().version();
+    }
 
-    private int discountPercent = 10;
     @Override
     public int discount(Member member, int price) {
         if (member.getGrade() == Grade.VIP) {
-            return price * discountPercent / 100;
+            return price * discountSettings.current().ratePercent() / 100;
         } else {
             return 0;
         }
     }
+
+    // --add-modules jdk.incubator.vector 로 실행하면 SIMD, 아니면 같은 계산을 스칼라 루프로 한다.
+    @Override
+    public void discountAll(int[] prices, byte[] grades, int[] out) {
+        DiscountPolicy.checkBatch(prices, grades, out);
+        byte vip = Grade.VIP.code();
+        int discountPercent = discountSettings.current().ratePercent();
+        if (VectorDiscounts.ENABLED) {
+            VectorDiscounts.percentFor(vip, discountPercent, prices, grades, out);
+            return;
+        }
+        for (int i = 0; i < prices.length; i++) {
+            out[i] = grades[i] == vip ? prices[i] * discountPercent / 100 : 0;
+        }
+    }
 }
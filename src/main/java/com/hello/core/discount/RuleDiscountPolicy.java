@@ -0,0 +1,145 @@
+package com.hello.core.discount;
+
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/*
+ - 할인 규칙(DiscountRule) 목록을 표(table)로 바꿔 두고 찾아보기만 하는 할인 정책
+ - RateDiscountPolicy, FixDiscountPolicy 는 if (grade == VIP) 분기와 고정 필드라서 캠페인마다 클래스와 분기가 늘어난다.
+   여기서는 규칙을 파일이나 목록으로 받아서 생성할 때 한 번 컴파일한다.
+ - 컴파일
+    - 모든 규칙의 가격 경계(minPrice, maxPrice)를 모아 정렬하면 가격 구간(band)이 나온다.
+    - (등급 칸, 구간) 마다 그 칸을 덮는 규칙 중 첫 번째 규칙을 골라서 percent[], fixed[], cap[] 에 펼쳐 둔다. (규칙이 겹치면 먼저 적은 규칙이 이긴다)
+    - 등급 칸은 Grade.ordinal(), 마지막 칸은 등급 없는 회원용이다.
+ - 할인 계산
+    - 구간 찾기: 경계 배열을 2의 거듭제곱 길이로 채워 두고 분기 없는 이진 탐색을 정해진 횟수만큼 돈다.
+    - 할인액 = min(cap, fixed + price * percent / 100, price), 규칙 종류에 따른 분기가 없다.
+    - 규칙이 몇 개든 비용은 구간 수의 log 로 고정이다. (구간 수는 경계 수라서 보통 몇 개 안 된다)
+ - 컴파일된 표는 바뀌지 않으므로 여러 스레드가 같이 써도 된다. (configurationVersion 도 항상 0)
+ */
+public class RuleDiscountPolicy implements PureDiscountPolicy {
+
+    private static final int GRADE_ROWS = Grade.values().length + 1;
+    private static final int NO_GRADE_ROW = GRADE_ROWS - 1;
+
+    private final List<DiscountRule> rules;
+    // 구간 시작 가격, 길이는 2의 거듭제곱 (남는 칸은 Integer.MAX_VALUE)
+    private final int[] bounds;
+    private final int searchSteps;
+    private final int bands;
+    // [등급 칸 * bands + 구간]
+    private final int[] percents;
+    private final int[] fixedAmounts;
+    private final int[] caps;
+
+    public RuleDiscountPolicy(List<DiscountRule> rules) {
+        this.rules = List.copyOf(rules);
+
+        TreeSet<Integer> edges = new TreeSet<>();
+        edges.add(0);
+        for (DiscountRule rule : this.rules) {
+            edges.add(rule.minPrice());
+            if (rule.maxPrice() != Integer.MAX_VALUE) {
+                edges.add(rule.maxPrice());
+            }
+        }
+        this.bands = edges.size();
+        int length = Integer.highestOneBit(Math.max(1, bands * 2 - 1));
+        this.bounds = new int[length];
+        Arrays.fill(bounds, Integer.MAX_VALUE);
+        int b = 0;
+        for (int edge : edges) {
+            bounds[b++] = edge;
+        }
+        this.searchSteps = Integer.numberOfTrailingZeros(length);
+
+        this.percents = new int[GRADE_ROWS * bands];
+        this.fixedAmounts = new int[GRADE_ROWS * bands];
+        this.caps = new int[GRADE_ROWS * bands];
+        Grade[] grades = Grade.values();
+        for (int row = 0; row < GRADE_ROWS; row++) {
+            Grade grade = row == NO_GRADE_ROW ? null : grades[row];
+            for (int band = 0; band < bands; band++) {
+                DiscountRule rule = firstMatch(grade, bounds[band]);
+                int slot = row * bands + band;
+                // 맞는 규칙이 없으면 모두 0 이라 할인이 0 이다.
+                if (rule != null) {
+                    percents[slot] = rule.type() == DiscountRule.Type.PERCENT ? rule.value() : 0;
+                    fixedAmounts[slot] = rule.type() == DiscountRule.Type.FIXED ? rule.value() : 0;
+                    caps[slot] = rule.cap();
+                }
+            }
+        }
+    }
+
+    /**
+     * 한 줄에 규칙 하나씩 적힌 파일을 읽는다. 빈 줄과 # 으로 시작하는 줄은 건너뛴다.
+     */
+    public static RuleDiscountPolicy load(Path path) throws IOException {
+        List<DiscountRule> rules = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    rules.add(DiscountRule.parse(trimmed));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(path + " " + lineNumber + "번째 줄: " + e.getMessage(), e);
+                }
+            }
+        }
+        return new RuleDiscountPolicy(rules);
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        Grade grade = member.getGrade();
+        int row = grade == null ? NO_GRADE_ROW : grade.ordinal();
+        int slot = row * bands + bandOf(price);
+        long amount = fixedAmounts[slot] + (long) price * percents[slot] / 100;
+        return (int) Math.min(Math.min(amount, caps[slot]), Math.max(price, 0));
+    }
+
+    public List<DiscountRule> getRules() {
+        return rules;
+    }
+
+    public int bandCount() {
+        return bands;
+    }
+
+    // price 가 속한 구간 번호 (bounds[band] <= price 인 가장 큰 band), 음수 가격은 첫 구간
+    private int bandOf(int price) {
+        int band = 0;
+        for (int half = bounds.length >>> 1, step = 0; step < searchSteps; step++, half >>>= 1) {
+            // 예측할 분기 없이 cmov 로 컴파일되는 형태
+            band += bounds[band + half] <= price ? half : 0;
+        }
+        // price 가 Integer.MAX_VALUE 면 채워 둔 칸까지 가므로 마지막 구간으로 자른다.
+        return Math.min(band, bands - 1);
+    }
+
+    private DiscountRule firstMatch(Grade grade, int bandStart) {
+        for (DiscountRule rule : rules) {
+            if (rule.appliesTo(grade, bandStart)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+}
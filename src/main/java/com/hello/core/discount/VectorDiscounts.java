@@ -0,0 +1,101 @@
+package com.hello.core.discount;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ - 등급 하나에만 할인하는 정책(RateDiscountPolicy, FixDiscountPolicy)의 일괄 계산을 Vector API(SIMD)로 한다.
+ - 등급은 byte, 가격은 int 라서 한 번 읽은 등급 벡터를 int 폭으로 나눠(part) 펼친 뒤 가격 벡터와 맞춘다.
+ - 배열 끝에 벡터 한 개가 안 되는 나머지는 스칼라로 계산한다.
+ - jdk.incubator.vector 모듈이 있을 때만 로드해야 한다. (ENABLED 를 먼저 확인한다)
+ */
+final class VectorDiscounts {
+
+    // JVM 옵션에 --add-modules jdk.incubator.vector 가 없으면 false, -Ddiscount.vector.disabled=true 로 끌 수 있다.
+    static final boolean ENABLED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && !Boolean.getBoolean("discount.vector.disabled")
+            && preferredBitSize() >= 128;
+
+    private VectorDiscounts() {
+    }
+
+    // SIMD 가 없는 CPU 에서는 선호 폭이 64비트라 int 절반 폭 species 를 만들 수 없다.
+    private static int preferredBitSize() {
+        return VectorShape.preferredShape().vectorBitSize();
+    }
+
+    /**
+     * grades[i] == grade 이면 prices[i] * percent / 100, 아니면 0 (int 연산 결과는 스칼라와 같다)
+     */
+    static void percentFor(byte grade, int percent, int[] prices, byte[] grades, int[] out) {
+        Kernel.percentFor(grade, percent, prices, grades, out);
+    }
+
+    /**
+     * grades[i] == grade 이면 amount, 아니면 0
+     */
+    static void fixedFor(byte grade, int amount, int[] prices, byte[] grades, int[] out) {
+        Kernel.fixedFor(grade, amount, prices, grades, out);
+    }
+
+    // Vector API 타입은 이 클래스가 처음 쓰일 때만 로드된다.
+    private static final class Kernel {
+
+        private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+        private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+        private static final int PARTS = BYTES.length() / INTS.length();
+
+        // 정수 나눗셈은 SIMD 명령이 없어서 double 로 나눈다. 같은 칸 수를 맞추려고 int 는 절반 폭을 쓴다.
+        // |price * percent| < 2^31 이라 몫이 정수에서 0.01 이상 떨어져 있으므로 double 나눗셈 후 버림은 int 나눗셈과 같다.
+        private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+        private static final VectorSpecies<Integer> HALF_INTS =
+                VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+        private static final int HALF_PARTS = BYTES.length() / HALF_INTS.length();
+
+        static void percentFor(byte grade, int percent, int[] prices, byte[] grades, int[] out) {
+            int length = prices.length;
+            int bound = BYTES.loopBound(length);
+            IntVector zero = IntVector.zero(HALF_INTS);
+            int i = 0;
+            for (; i < bound; i += BYTES.length()) {
+                ByteVector codes = ByteVector.fromArray(BYTES, grades, i);
+                for (int part = 0; part < HALF_PARTS; part++) {
+                    int at = i + part * HALF_INTS.length();
+                    VectorMask<Integer> match = ((IntVector) codes.convertShape(VectorOperators.B2I, HALF_INTS, part)).eq(grade);
+                    DoubleVector quotient = ((DoubleVector) IntVector.fromArray(HALF_INTS, prices, at)
+                            .mul(percent)
+                            .convertShape(VectorOperators.I2D, DOUBLES, 0))
+                            .div(100.0);
+                    IntVector discount = (IntVector) quotient.convertShape(VectorOperators.D2I, HALF_INTS, 0);
+                    zero.blend(discount, match).intoArray(out, at);
+                }
+            }
+            for (; i < length; i++) {
+                out[i] = grades[i] == grade ? prices[i] * percent / 100 : 0;
+            }
+        }
+
+        static void fixedFor(byte grade, int amount, int[] prices, byte[] grades, int[] out) {
+            int length = prices.length;
+            int bound = BYTES.loopBound(length);
+            IntVector zero = IntVector.zero(INTS);
+            IntVector discount = IntVector.broadcast(INTS, amount);
+            int i = 0;
+            for (; i < bound; i += BYTES.length()) {
+                ByteVector codes = ByteVector.fromArray(BYTES, grades, i);
+                for (int part = 0; part < PARTS; part++) {
+                    VectorMask<Integer> match = ((IntVector) codes.convertShape(VectorOperators.B2I, INTS, part)).eq(grade);
+                    zero.blend(discount, match).intoArray(out, i + part * INTS.length());
+                }
+            }
+            for (; i < length; i++) {
+                out[i] = grades[i] == grade ? amount : 0;
+            }
+        }
+    }
+}
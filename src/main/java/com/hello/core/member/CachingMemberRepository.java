@@ -0,0 +1,353 @@
+package com.hello.core.member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/*
+ - 어떤 MemberRepository 든 감싸서 조회 결과를 캐시하는 데코레이터 (read-through)
+ - 주문은 소수의 회원이 대부분을 만들기 때문에, 느린 저장소 앞에 작은 캐시만 둬도 createOrder 의 왕복이 크게 줄어든다.
+
+ 크기 제한 / 교체 정책 (W-TinyLFU)
+ - 최대 maximumSize 개까지만 담는다.
+ - 새 항목은 먼저 작은 window(전체의 1%) LRU 에 들어간다.
+ - window 에서 밀려난 후보는 main 영역(probation 20% + protected 80%, SLRU)의 희생자와 접근 빈도(FrequencySketch)를 비교해서
+   더 자주 쓰인 쪽만 남긴다. 한 번 스쳐 간 회원이 자주 쓰는 회원을 밀어내지 못한다.
+ - probation 에서 다시 조회되면 protected 로 올라간다.
+
+ 동시성
+ - 조회는 ConcurrentHashMap 에서 락 없이 읽는다.
+ - 정책 구조(LRU 목록, 빈도)는 lock 으로 보호한다. 히트 시에는 tryLock 으로만 갱신하고, 경합 중이면 순서 갱신을 건너뛴다. (약간의 정확도를 버리고 읽기를 막지 않는다)
+
+ 쓰기
+ - save 는 원본 저장소에 먼저 쓰고(write-through) 캐시 항목은 지운다.
+ - 조회 중에 save 가 끼어들면 읽어온 값이 옛 값일 수 있으므로, 그 id 의 쓰기 버전이 바뀌었으면 캐시에 넣지 않는다.
+    - 쓰기 버전은 id 공간을 VERSION_STRIPES 칸으로 나눠 칸마다 따로 센다.
+      다른 회원에 대한 쓰기는 (같은 칸이 아니면) 조회 결과를 버리게 하지 않으므로, 쓰기가 꾸준히 있어도 캐시가 채워진다.
+ */
+public class CachingMemberRepository implements MemberRepository {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    // 쓰기 버전 칸 수 (2의 거듭제곱)
+    private static final int VERSION_STRIPES = 1024;
+
+    private final MemberRepository delegate;
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+
+    private final Map<Long, Node> data = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final Queue window = new Queue();
+    private final Queue probation = new Queue();
+    private final Queue protectedQueue = new Queue();
+    // id 가 속한 칸의 쓰기 버전, lock 안에서만 올린다.
+    private final AtomicLongArray writeVersions = new AtomicLongArray(VERSION_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingMemberRepository(MemberRepository delegate) {
+        this(delegate, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public CachingMemberRepository(MemberRepository delegate, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.delegate = delegate;
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        int mainMaximum = maximumSize - windowMaximum;
+        this.protectedMaximum = (int) (mainMaximum * 0.8);
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    @Override
+    public void save(Member member) {
+        delegate.save(member);
+        invalidate(member.getId());
+    }
+
+    @Override
+    public void saveAll(List<Member> members) {
+        delegate.saveAll(members);
+        for (Member member : members) {
+            invalidate(member.getId());
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        Member cached = getIfPresent(memberId);
+        if (cached != null) {
+            return cached;
+        }
+        long version = writeVersion(memberId);
+        Member member = delegate.findById(memberId);
+        if (member != null) {
+            put(memberId, member, version);
+        }
+        return member;
+    }
+
+    // 캐시에 없는 id 만 모아서 원본 저장소의 findAllById 를 한 번 호출한다.
+    @Override
+    public List<Member> findAllById(List<Long> memberIds) {
+        List<Member> result = new ArrayList<>(memberIds.size());
+        List<Long> missing = new ArrayList<>();
+        List<Integer> missingAt = new ArrayList<>();
+        for (int i = 0; i < memberIds.size(); i++) {
+            Member cached = getIfPresent(memberIds.get(i));
+            result.add(cached);
+            if (cached == null) {
+                missing.add(memberIds.get(i));
+                missingAt.add(i);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        long[] versions = new long[missing.size()];
+        for (int j = 0; j < versions.length; j++) {
+            versions[j] = writeVersion(missing.get(j));
+        }
+        List<Member> loaded = delegate.findAllById(missing);
+        for (int j = 0; j < loaded.size(); j++) {
+            Member member = loaded.get(j);
+            if (member != null) {
+                result.set(missingAt.get(j), member);
+                put(missing.get(j), member, versions[j]);
+            }
+        }
+        return result;
+    }
+
+    // 인덱스 조회는 결과가 커서 캐시하지 않고 그대로 넘긴다.
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        return delegate.findByGrade(grade);
+    }
+
+    @Override
+    public List<Member> findByNamePrefix(String prefix) {
+        return delegate.findByNamePrefix(prefix);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        delegate.forEach(action);
+    }
+
+    public void invalidate(long memberId) {
+        lock.lock();
+        try {
+            writeVersions.incrementAndGet(stripeOf(memberId));
+            Node node = data.remove(memberId);
+            if (node != null && node.queue >= 0) {
+                queueOf(node).unlink(node);
+                node.queue = -1;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), data.size());
+    }
+
+    public MemberRepository getDelegate() {
+        return delegate;
+    }
+
+    private long writeVersion(long memberId) {
+        return writeVersions.get(stripeOf(memberId));
+    }
+
+    private static int stripeOf(long memberId) {
+        return LongMemberMap.hash(memberId) & (VERSION_STRIPES - 1);
+    }
+
+    private Member getIfPresent(long memberId) {
+        Node node = data.get(memberId);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (lock.tryLock()) {
+            try {
+                sketch.increment(memberId);
+                if (node.queue >= 0) {
+                    onHit(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    private void put(long memberId, Member member, long version) {
+        lock.lock();
+        try {
+            sketch.increment(memberId);
+            if (version != writeVersion(memberId) || data.containsKey(memberId)) {
+                return;
+            }
+            Node node = new Node(memberId, member);
+            data.put(memberId, node);
+            node.queue = WINDOW;
+            window.addLast(node);
+            if (window.size > windowMaximum) {
+                admit(window.removeFirst());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // window 에서 밀려난 candidate 를 main 영역에 받을지 결정한다.
+    private void admit(Node candidate) {
+        if (probation.size + protectedQueue.size < maximumSize - windowMaximum) {
+            candidate.queue = PROBATION;
+            probation.addLast(candidate);
+            return;
+        }
+        Node victim = probation.size > 0 ? probation.first() : protectedQueue.first();
+        if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+            queueOf(victim).unlink(victim);
+            evict(victim);
+            candidate.queue = PROBATION;
+            probation.addLast(candidate);
+        } else {
+            evict(candidate);
+        }
+    }
+
+    private void onHit(Node node) {
+        switch (node.queue) {
+            case WINDOW -> window.moveToLast(node);
+            case PROBATION -> {
+                probation.unlink(node);
+                node.queue = PROTECTED;
+                protectedQueue.addLast(node);
+                if (protectedQueue.size > protectedMaximum) {
+                    Node demoted = protectedQueue.removeFirst();
+                    demoted.queue = PROBATION;
+                    probation.addLast(demoted);
+                }
+            }
+            default -> protectedQueue.moveToLast(node);
+        }
+    }
+
+    private void evict(Node node) {
+        node.queue = -1;
+        data.remove(node.key, node);
+        evictions.increment();
+    }
+
+    private Queue queueOf(Node node) {
+        return switch (node.queue) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            default -> protectedQueue;
+        };
+    }
+
+    private static final class Node {
+        final long key;
+        final Member value;
+        // WINDOW, PROBATION, PROTECTED, 캐시에서 빠지면 -1
+        int queue = -1;
+        Node prev;
+        Node next;
+
+        Node(long key, Member value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    // 접근 순서 목록, first 가 가장 오래 전에 쓰인 항목이다.
+    private static final class Queue {
+        private Node head;
+        private Node tail;
+        int size;
+
+        Node first() {
+            return head;
+        }
+
+        void addLast(Node node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        Node removeFirst() {
+            Node node = head;
+            unlink(node);
+            return node;
+        }
+
+        void moveToLast(Node node) {
+            if (node != tail) {
+                unlink(node);
+                addLast(node);
+            }
+        }
+
+        void unlink(Node node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+    }
+
+    /**
+     * 누적 캐시 통계
+     */
+    public record CacheStats(long hits, long misses, long evictions, int size) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 1.0 : (double) hits / requests;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.hello.core.member;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/*
+ - 컨테이너에 등록되는 MemberRepository 빈을 CachingMemberRepository 로 감싸는 빈 후처리기
+ - 빈 후처리기는 빈이 초기화된 뒤 원본 대신 다른 객체(여기서는 캐시 데코레이터)를 컨테이너에 등록할 수 있다.
+ - 따라서 AppConfig 의 memberRepository() 든, AutoAppConfig 가 스캔한 MemoryMemberRepository 든 코드 수정 없이 캐시가 적용된다.
+    - AutoAppConfig: 컴포넌트 스캔으로 등록된다.
+    - AppConfig: @Import 로 등록된다.
+ - member.cache.enabled=true 일 때만 등록된다. 크기는 member.cache.maximum-size (기본 10000)
+ - 감싼 뒤에는 빈 타입이 CachingMemberRepository 가 되므로 구체 타입(MemoryMemberRepository)으로 주입받는 곳이 있으면 안 된다.
+ */
+@Component
+@ConditionalOnProperty(name = "member.cache.enabled", havingValue = "true")
+public class CachingMemberRepositoryPostProcessor implements BeanPostProcessor, EnvironmentAware {
+
+    private int maximumSize = CachingMemberRepository.DEFAULT_MAXIMUM_SIZE;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.maximumSize = environment.getProperty(
+                "member.cache.maximum-size", Integer.class, CachingMemberRepository.DEFAULT_MAXIMUM_SIZE);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof MemberRepository repository && !(bean instanceof CachingMemberRepository)) {
+            return new CachingMemberRepository(repository, maximumSize);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hello.core.member;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+ - 어떤 MemberRepository 든 감싸서, 저장이 끝난 회원을 MemberChangeStream 으로 발행하는 데코레이터
+ - MemberService.join -> save 경로에 붙이면 검색, 캐시 무효화, 분석 같은 하위 시스템이 저장소를 폴링하지 않고 변경을 받는다.
+ - 발행은 순번 하나를 받아 링 버퍼 칸에 쓰는 것뿐이라, 구독자가 느려도 save 는 기다리지 않는다.
+ */
+public class ChangeCapturingMemberRepository implements MemberRepository {
+
+    private final MemberRepository delegate;
+    private final MemberChangeStream changes;
+
+    public ChangeCapturingMemberRepository(MemberRepository delegate, MemberChangeStream changes) {
+        this.delegate = delegate;
+        this.changes = changes;
+    }
+
+    @Override
+    public void save(Member member) {
+        delegate.save(member);
+        changes.publish(member);
+    }
+
+    @Override
+    public void saveAll(List<Member> members) {
+        delegate.saveAll(members);
+        for (Member member : members) {
+            changes.publish(member);
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return delegate.findById(memberId);
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        return delegate.findById(memberId);
+    }
+
+    @Override
+    public List<Member> findAllById(List<Long> memberIds) {
+        return delegate.findAllById(memberIds);
+    }
+
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        return delegate.findByGrade(grade);
+    }
+
+    @Override
+    public List<Member> findByNamePrefix(String prefix) {
+        return delegate.findByNamePrefix(prefix);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        delegate.forEach(action);
+    }
+
+    public MemberChangeStream getChanges() {
+        return changes;
+    }
+
+    public MemberRepository getDelegate() {
+        return delegate;
+    }
+}
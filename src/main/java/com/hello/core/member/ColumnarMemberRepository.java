@@ -0,0 +1,344 @@
+package com.hello.core.member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/*
+ - 컬럼(struct-of-arrays) 방식 회원 저장소
+ - Member 객체를 그대로 저장하면 회원마다 객체 헤더 + Long 박싱 + String + Grade 참조로 80바이트 이상이 들고, 맵 오버헤드가 그 위에 더해진다.
+ - 여기서는 회원을 행(row) 번호로 다루고 필드를 배열로 나눠서 저장한다.
+    - ids       long[]  : 회원 id
+    - grades    byte[]  : Grade.code(), null 이면 -1
+    - nameRefs  int[]   : 이름 번호, null 이면 -1
+    - 이름은 UTF-8 바이트로 arena(byte[]) 하나에 이어 붙이고, 같은 이름은 한 번만 저장한다. (intern)
+    - id -> 행 번호는 long/int 오픈 어드레싱 테이블로 찾는다.
+ - 행당 고정 비용은 id 8 + 등급 1 + 이름 번호 4 + id 테이블 약 24 바이트 정도이고, 이름은 서로 다른 이름 수만큼만 든다.
+ - Member 는 조회할 때마다 배열에서 새로 만들어 주는 뷰(view)이다. 돌려받은 Member 를 수정해도 저장소에는 반영되지 않는다.
+ - 등급 조회는 grades 바이트 배열을 처음부터 끝까지 훑기 때문에 캐시 친화적이다. (별도 인덱스를 두지 않는다)
+ - 이름을 바꿔도 예전 이름 바이트는 arena 에 남는다. (다른 회원이 같은 이름을 쓰면 재사용된다)
+ */
+public class ColumnarMemberRepository implements MemberRepository {
+
+    private static final int NO_NAME = -1;
+    private static final byte NO_GRADE = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 행(row) 컬럼
+    private long[] ids;
+    private byte[] grades;
+    private int[] nameRefs;
+    private int rows;
+
+    // id -> 행 번호 (rowSlots 는 행 번호 + 1, 0 이면 빈 칸)
+    private long[] rowKeys;
+    private int[] rowSlots;
+
+    // 이름 arena
+    private byte[] arena = new byte[1024];
+    private int arenaSize;
+    private int[] nameOffsets = new int[64];
+    private int[] nameLengths = new int[64];
+    private int names;
+    // 이름 해시 -> 이름 번호 + 1, 0 이면 빈 칸
+    private int[] nameTable = new int[128];
+
+    public ColumnarMemberRepository() {
+        this(1024);
+    }
+
+    public ColumnarMemberRepository(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        this.ids = new long[capacity];
+        this.grades = new byte[capacity];
+        this.nameRefs = new int[capacity];
+        int tableSize = LongMemberMap.tableSizeFor(capacity * 2);
+        this.rowKeys = new long[tableSize];
+        this.rowSlots = new int[tableSize];
+    }
+
+    @Override
+    public void save(Member member) {
+        lock.writeLock().lock();
+        try {
+            saveLocked(member);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void saveAll(List<Member> members) {
+        lock.writeLock().lock();
+        try {
+            for (Member member : members) {
+                saveLocked(member);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        lock.readLock().lock();
+        try {
+            int row = rowOf(memberId);
+            return row < 0 ? null : view(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Member> findAllById(List<Long> memberIds) {
+        List<Member> result = new ArrayList<>(memberIds.size());
+        lock.readLock().lock();
+        try {
+            for (Long memberId : memberIds) {
+                int row = rowOf(memberId);
+                result.add(row < 0 ? null : view(row));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        byte code = grade.code();
+        List<Member> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < rows; row++) {
+                if (grades[row] == code) {
+                    result.add(view(row));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * 서로 다른 이름만 먼저 훑어서 prefix 로 시작하는 이름 번호를 고른 뒤, 행은 int 비교로만 거른다.
+     */
+    @Override
+    public List<Member> findByNamePrefix(String prefix) {
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        List<Member> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            boolean[] matches = new boolean[names];
+            boolean any = false;
+            for (int name = 0; name < names; name++) {
+                int offset = nameOffsets[name];
+                if (nameLengths[name] >= prefixBytes.length
+                        && Arrays.equals(arena, offset, offset + prefixBytes.length, prefixBytes, 0, prefixBytes.length)) {
+                    matches[name] = true;
+                    any = true;
+                }
+            }
+            if (any) {
+                for (int row = 0; row < rows; row++) {
+                    int name = nameRefs[row];
+                    if (name != NO_NAME && matches[name]) {
+                        result.add(view(row));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparing(Member::getName).thenComparing(Member::getId));
+        return result;
+    }
+
+    // 읽기 락을 잡은 채로 action 을 부르면 action 안의 save 가 교착되므로, 일정 크기씩 뷰를 만들고 락을 놓은 뒤 넘긴다.
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        Member[] chunk = new Member[1024];
+        int next = 0;
+        while (true) {
+            int count = 0;
+            lock.readLock().lock();
+            try {
+                while (count < chunk.length && next < rows) {
+                    chunk[count++] = view(next++);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (count == 0) {
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                action.accept(chunk[i]);
+            }
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 컬럼 배열과 arena 가 실제로 차지하는 바이트 수 (대략적인 메모리 사용량 확인용)
+     */
+    public long memoryFootprint() {
+        lock.readLock().lock();
+        try {
+            return (long) ids.length * (Long.BYTES + 1 + Integer.BYTES)
+                    + (long) rowKeys.length * (Long.BYTES + Integer.BYTES)
+                    + arena.length
+                    + (long) nameOffsets.length * Integer.BYTES * 2
+                    + (long) nameTable.length * Integer.BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void saveLocked(Member member) {
+        long id = member.getId();
+        int row = rowOf(id);
+        if (row < 0) {
+            row = appendRow(id);
+        }
+        grades[row] = member.getGrade() == null ? NO_GRADE : member.getGrade().code();
+        nameRefs[row] = member.getName() == null ? NO_NAME : intern(member.getName());
+    }
+
+    private Member view(int row) {
+        byte grade = grades[row];
+        int name = nameRefs[row];
+        return new Member(
+                ids[row],
+                name == NO_NAME ? null : new String(arena, nameOffsets[name], nameLengths[name], StandardCharsets.UTF_8),
+                grade == NO_GRADE ? null : Grade.fromCode(grade));
+    }
+
+    private int rowOf(long id) {
+        int mask = rowKeys.length - 1;
+        int i = LongMemberMap.hash(id) & mask;
+        while (rowSlots[i] != 0) {
+            if (rowKeys[i] == id) {
+                return rowSlots[i] - 1;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int appendRow(long id) {
+        if (rows == ids.length) {
+            int capacity = ids.length + (ids.length >>> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            grades = Arrays.copyOf(grades, capacity);
+            nameRefs = Arrays.copyOf(nameRefs, capacity);
+        }
+        int row = rows++;
+        ids[row] = id;
+        if (rows * 2 > rowKeys.length) {
+            rehashRows(rowKeys.length << 1);
+        }
+        insertRow(id, row);
+        return row;
+    }
+
+    private void insertRow(long id, int row) {
+        int mask = rowKeys.length - 1;
+        int i = LongMemberMap.hash(id) & mask;
+        while (rowSlots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        rowKeys[i] = id;
+        rowSlots[i] = row + 1;
+    }
+
+    private void rehashRows(int tableSize) {
+        rowKeys = new long[tableSize];
+        rowSlots = new int[tableSize];
+        // 새로 추가될 행은 appendRow 가 직접 넣는다.
+        for (int row = 0; row < rows - 1; row++) {
+            insertRow(ids[row], row);
+        }
+    }
+
+    private int intern(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int hash = Arrays.hashCode(bytes);
+        int mask = nameTable.length - 1;
+        int i = mix(hash) & mask;
+        while (nameTable[i] != 0) {
+            int candidate = nameTable[i] - 1;
+            int offset = nameOffsets[candidate];
+            if (nameLengths[candidate] == bytes.length
+                    && Arrays.equals(arena, offset, offset + bytes.length, bytes, 0, bytes.length)) {
+                return candidate;
+            }
+            i = (i + 1) & mask;
+        }
+
+        if (arenaSize + bytes.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length << 1, arenaSize + bytes.length));
+        }
+        System.arraycopy(bytes, 0, arena, arenaSize, bytes.length);
+        if (names == nameOffsets.length) {
+            nameOffsets = Arrays.copyOf(nameOffsets, names << 1);
+            nameLengths = Arrays.copyOf(nameLengths, names << 1);
+        }
+        int name = names++;
+        nameOffsets[name] = arenaSize;
+        nameLengths[name] = bytes.length;
+        arenaSize += bytes.length;
+
+        nameTable[i] = name + 1;
+        if (names * 2 > nameTable.length) {
+            rehashNames(nameTable.length << 1);
+        }
+        return name;
+    }
+
+    private void rehashNames(int tableSize) {
+        nameTable = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int name = 0; name < names; name++) {
+            int offset = nameOffsets[name];
+            int i = mix(hashOf(arena, offset, nameLengths[name])) & mask;
+            while (nameTable[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            nameTable[i] = name + 1;
+        }
+    }
+
+    // Arrays.hashCode(byte[]) 와 같은 값을 arena 구간에 대해 계산한다.
+    private static int hashOf(byte[] bytes, int offset, int length) {
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,71 @@
+package com.hello.core.member;
+
+import java.util.Arrays;
+
+/*
+ - 해시 링 기반 라우터
+ - 샤드마다 가상 노드(virtual node)를 여러 개 링 위에 흩어 놓고, 회원 id 의 해시에서 시계 방향으로 처음 만나는 노드의 샤드로 보낸다.
+ - 링은 생성 시점에 정렬된 long[] 로 만들어 두고, 조회는 이진 탐색만 한다. (조회 중 객체 생성 없음)
+ - 샤드가 하나 늘면 대략 1/(샤드 수) 만큼의 회원만 새 샤드로 옮겨진다.
+ */
+public class ConsistentHashShardRouter implements ShardRouter {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final int shardCount;
+    private final long[] ring;
+    private final int[] owners;
+
+    public ConsistentHashShardRouter(int shardCount) {
+        this(shardCount, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ConsistentHashShardRouter(int shardCount, int virtualNodes) {
+        if (shardCount <= 0 || virtualNodes <= 0) {
+            throw new IllegalArgumentException("shardCount, virtualNodes must be positive");
+        }
+        this.shardCount = shardCount;
+
+        int size = shardCount * virtualNodes;
+        long[] points = new long[size];
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                points[shard * virtualNodes + node] = mix(((long) shard << 32) | node);
+            }
+        }
+        // 위치와 주인을 같이 정렬하기 위해 인덱스를 정렬한다.
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(points[a], points[b]));
+
+        this.ring = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = points[order[i]];
+            owners[i] = order[i] / virtualNodes;
+        }
+    }
+
+    @Override
+    public int shardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int shardFor(long memberId) {
+        int i = Arrays.binarySearch(ring, mix(memberId ^ 0x5DEECE66DL));
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return owners[i == ring.length ? 0 : i];
+    }
+
+    // splitmix64 finalizer
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
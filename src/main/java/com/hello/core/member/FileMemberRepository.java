@@ -0,0 +1,496 @@
+package com.hello.core.member;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/*
+ - 재시작해도 회원이 남아있는 MemberRepository 구현
+ - 메모리 구조는 LongKeyMemberRepository 와 같은 LongMemberMap 이고, 모든 save 를 로컬 파일에 먼저 남긴다.
+
+ 쓰기 (WAL, write-ahead log)
+ - save 는 레코드를 메모리 버퍼에 붙이고, 기록 전용 스레드가 버퍼를 통째로 파일에 쓴 뒤 fsync(force) 한다.
+ - 여러 스레드의 save 가 한 번의 fsync 로 같이 내려간다. (group commit)
+ - save 는 자신의 레코드가 fsync 될 때까지 기다렸다가 반환한다.
+
+ 압축 (snapshot compaction)
+ - 로그가 compactThreshold 를 넘으면 새 세대(generation)의 로그 파일로 갈아타고,
+ - 별도 스레드가 현재 메모리 상태 전체를 snapshot-<세대>.dat 로 쓴 다음, 그보다 오래된 스냅샷과 로그를 지운다.
+ - 스냅샷에는 새 로그에 들어간 레코드가 같이 들어있을 수 있지만, 재적용해도 결과가 같기 때문에(같은 id 덮어쓰기) 문제없다.
+ - 스냅샷 쓰기에 실패하면 이전 스냅샷과 로그가 그대로 남고 다음 압축 때 다시 시도한다.
+   계속 실패하면 로그가 쌓여서 시작이 점점 느려지므로 snapshotFailures(), lastSnapshotFailure() 로 볼 수 있게 한다.
+
+ 시작 (recovery)
+ - 가장 최근 스냅샷을 메모리 매핑(mmap)해서 읽고, 그 세대 이후의 로그만 순서대로 다시 적용한다.
+ - 마지막 로그 끝의 잘린 레코드는 CRC 로 걸러내고 잘라낸다.
+
+ - 스레드와 파일을 쥐고 있으므로 AutoCloseable 이다. @Bean 으로 등록하면 close() 가 소멸 메서드로 자동 추론된다.
+ */
+public class FileMemberRepository implements MemberRepository, AutoCloseable {
+
+    public static final long DEFAULT_COMPACT_THRESHOLD = 64L * 1024 * 1024;
+
+    private static final String WAL_PREFIX = "wal-";
+    private static final String WAL_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".dat";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long SNAPSHOT_MAGIC = 0x4D454D4245525331L; // "MEMBERS1"
+    private static final int SNAPSHOT_HEADER_BYTES = 16;
+
+    private final Path directory;
+    private final long compactThreshold;
+    private final LongMemberMap store;
+    private final MemberIndex index = new MemberIndex();
+
+    // save 스레드와 기록 스레드가 공유하는 상태, lock 으로 보호한다.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private byte[] pending = new byte[64 * 1024];
+    private int pendingSize;
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean compactRequested;
+    private boolean closed;
+    private IOException failure;
+
+    // 기록 스레드만 사용한다.
+    private byte[] flushing = new byte[64 * 1024];
+    private FileChannel wal;
+    private long generation;
+    private long walBytes;
+
+    private final Thread writer;
+    private final ExecutorService compactor;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final AtomicLong snapshotFailures = new AtomicLong();
+    // 마지막 스냅샷이 성공했으면 null
+    private volatile Exception lastSnapshotFailure;
+
+    public FileMemberRepository(Path directory) {
+        this(directory, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    public FileMemberRepository(Path directory, long compactThreshold) {
+        this.directory = directory;
+        this.compactThreshold = compactThreshold;
+        try {
+            Files.createDirectories(directory);
+            deleteTempFiles();
+            List<Long> snapshots = generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+            long base = snapshots.isEmpty() ? 0L : snapshots.get(snapshots.size() - 1);
+            this.store = loadSnapshot(base);
+            long lastGeneration = replayLogs(base);
+            store.forEach(index::update);
+            this.generation = Math.max(base, lastGeneration) + 1;
+            this.wal = openWal(generation);
+        } catch (IOException e) {
+            throw new UncheckedIOException("회원 저장소를 열 수 없습니다: " + directory, e);
+        }
+
+        this.compactor = Executors.newSingleThreadExecutor(r -> daemon(r, "member-snapshot"));
+        this.writer = daemon(this::writeLoop, "member-wal-writer");
+        this.writer.start();
+    }
+
+    @Override
+    public void save(Member member) {
+        byte[] record = MemberCodec.encode(member);
+        lock.lock();
+        try {
+            ensureOpen();
+            append(record);
+            store.put(member.getId(), member);
+            index.update(member);
+            long seq = ++appendedSeq;
+            notEmpty.signal();
+            awaitDurable(seq);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 배치 전체를 한 번에 붙이고 fsync 도 한 번만 기다린다.
+    @Override
+    public void saveAll(List<Member> members) {
+        List<byte[]> records = new ArrayList<>(members.size());
+        for (Member member : members) {
+            records.add(MemberCodec.encode(member));
+        }
+        lock.lock();
+        try {
+            ensureOpen();
+            for (byte[] record : records) {
+                append(record);
+            }
+            store.putAll(members, (previous, current) -> index.update(current));
+            long seq = ++appendedSeq;
+            notEmpty.signal();
+            awaitDurable(seq);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return store.get(memberId);
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        return store.get(memberId);
+    }
+
+    @Override
+    public List<Member> findAllById(List<Long> memberIds) {
+        List<Member> result = new ArrayList<>(memberIds.size());
+        for (Long memberId : memberIds) {
+            result.add(store.get(memberId));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        return index.findByGrade(grade, store::get);
+    }
+
+    @Override
+    public List<Member> findByNamePrefix(String prefix) {
+        return index.findByNamePrefix(prefix, store::get);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        store.forEach(action);
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * @return 지금까지 실패한 스냅샷 쓰기 횟수
+     */
+    public long snapshotFailures() {
+        return snapshotFailures.get();
+    }
+
+    /**
+     * @return 마지막 스냅샷 쓰기가 실패했으면 그 예외, 성공했거나 아직 쓴 적이 없으면 null
+     */
+    public Exception lastSnapshotFailure() {
+        return lastSnapshotFailure;
+    }
+
+    /**
+     * 로그 크기와 상관없이 다음 기록 때 새 세대로 갈아타고 스냅샷을 만들도록 요청한다. (비동기)
+     */
+    public void compact() {
+        lock.lock();
+        try {
+            compactRequested = true;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+            compactor.shutdown();
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+            wal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("회원 저장소가 닫혔습니다.");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("회원 로그 기록에 실패했습니다.", failure);
+        }
+    }
+
+    private void append(byte[] record) {
+        if (pendingSize + record.length > pending.length) {
+            byte[] grown = new byte[Math.max(pending.length << 1, pendingSize + record.length)];
+            System.arraycopy(pending, 0, grown, 0, pendingSize);
+            pending = grown;
+        }
+        System.arraycopy(record, 0, pending, pendingSize, record.length);
+        pendingSize += record.length;
+    }
+
+    private void awaitDurable(long seq) {
+        while (durableSeq < seq) {
+            if (failure != null) {
+                throw new UncheckedIOException("회원 로그 기록에 실패했습니다.", failure);
+            }
+            flushed.awaitUninterruptibly();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            int size;
+            long target;
+            boolean rotate;
+            lock.lock();
+            try {
+                while (pendingSize == 0 && !compactRequested && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (pendingSize == 0 && closed) {
+                    return;
+                }
+                byte[] swap = flushing;
+                flushing = pending;
+                pending = swap;
+                size = pendingSize;
+                pendingSize = 0;
+                target = appendedSeq;
+                rotate = compactRequested;
+                compactRequested = false;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                if (size > 0) {
+                    ByteBuffer buffer = ByteBuffer.wrap(flushing, 0, size);
+                    while (buffer.hasRemaining()) {
+                        wal.write(buffer);
+                    }
+                    wal.force(false);
+                    walBytes += size;
+                }
+                if (rotate || walBytes >= compactThreshold) {
+                    rotate();
+                }
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            lock.lock();
+            try {
+                durableSeq = target;
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // 기록 스레드에서만 호출된다.
+    private void rotate() throws IOException {
+        if (!compacting.compareAndSet(false, true)) {
+            // 이전 스냅샷이 아직 쓰이는 중이면 지금 로그에 계속 붙인다.
+            return;
+        }
+        wal.close();
+        generation++;
+        wal = openWal(generation);
+        walBytes = 0;
+
+        long snapshotGeneration = generation;
+        compactor.execute(() -> {
+            try {
+                writeSnapshot(snapshotGeneration);
+                lastSnapshotFailure = null;
+            } catch (IOException | UncheckedIOException e) {
+                // 이전 스냅샷과 로그가 그대로 남아 있으므로 다음 압축 때 다시 시도한다.
+                snapshotFailures.incrementAndGet();
+                lastSnapshotFailure = e;
+                System.out.println("회원 스냅샷을 쓰지 못해 다음 압축 때 다시 시도합니다. generation = "
+                        + snapshotGeneration + ", error = " + e.getMessage());
+            } finally {
+                compacting.set(false);
+            }
+        });
+    }
+
+    private void writeSnapshot(long snapshotGeneration) throws IOException {
+        Path temp = directory.resolve(fileName(SNAPSHOT_PREFIX, snapshotGeneration, SNAPSHOT_SUFFIX) + TEMP_SUFFIX);
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            buffer.putLong(SNAPSHOT_MAGIC).putLong(0L);
+            long[] count = {0L};
+            try {
+                store.forEach(member -> {
+                    byte[] record = MemberCodec.encode(member);
+                    try {
+                        if (buffer.remaining() < record.length) {
+                            drain(out, buffer);
+                        }
+                        if (record.length > buffer.capacity()) {
+                            writeFully(out, ByteBuffer.wrap(record));
+                        } else {
+                            buffer.put(record);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    count[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            drain(out, buffer);
+            out.write(ByteBuffer.allocate(8).putLong(0, count[0]), 8);
+            out.force(true);
+        }
+        Files.move(temp, directory.resolve(fileName(SNAPSHOT_PREFIX, snapshotGeneration, SNAPSHOT_SUFFIX)),
+                StandardCopyOption.ATOMIC_MOVE);
+
+        for (long old : generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (old < snapshotGeneration) {
+                Files.deleteIfExists(directory.resolve(fileName(SNAPSHOT_PREFIX, old, SNAPSHOT_SUFFIX)));
+            }
+        }
+        for (long old : generations(WAL_PREFIX, WAL_SUFFIX)) {
+            if (old < snapshotGeneration) {
+                Files.deleteIfExists(directory.resolve(fileName(WAL_PREFIX, old, WAL_SUFFIX)));
+            }
+        }
+    }
+
+    private LongMemberMap loadSnapshot(long base) throws IOException {
+        Path snapshot = directory.resolve(fileName(SNAPSHOT_PREFIX, base, SNAPSHOT_SUFFIX));
+        if (base == 0L || !Files.exists(snapshot)) {
+            return new LongMemberMap();
+        }
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // 헤더를 끝까지 읽는다.
+            }
+            if (header.getLong(0) != SNAPSHOT_MAGIC) {
+                throw new IOException("스냅샷 형식이 아닙니다: " + snapshot);
+            }
+            long count = header.getLong(8);
+            // 스냅샷 크기를 알고 있으므로 처음부터 충분히 크게 잡아서 적재 중 리사이즈를 피한다.
+            int perSegment = (int) Math.min(1 << 28, (count * 2) / LongMemberMap.DEFAULT_CONCURRENCY_LEVEL + 1);
+            LongMemberMap loaded = new LongMemberMap(LongMemberMap.DEFAULT_CONCURRENCY_LEVEL, perSegment);
+            MemberCodec.readAll(channel, SNAPSHOT_HEADER_BYTES, member -> loaded.put(member.getId(), member));
+            return loaded;
+        }
+    }
+
+    private long replayLogs(long base) throws IOException {
+        List<Long> logs = generations(WAL_PREFIX, WAL_SUFFIX);
+        long last = 0L;
+        for (int i = 0; i < logs.size(); i++) {
+            long logGeneration = logs.get(i);
+            last = logGeneration;
+            if (logGeneration < base) {
+                continue;
+            }
+            Path log = directory.resolve(fileName(WAL_PREFIX, logGeneration, WAL_SUFFIX));
+            try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long end = MemberCodec.readAll(channel, 0L, member -> store.put(member.getId(), member));
+                if (end < channel.size()) {
+                    if (i != logs.size() - 1) {
+                        throw new IOException("로그 중간이 손상되었습니다: " + log);
+                    }
+                    // 마지막 로그 끝의 잘린 레코드는 fsync 되지 않은 쓰기이므로 버린다.
+                    channel.truncate(end);
+                    channel.force(true);
+                }
+                walBytes += end;
+            }
+        }
+        return last;
+    }
+
+    private List<Long> generations(String prefix, String suffix) throws IOException {
+        List<Long> result = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                result.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private void deleteTempFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + TEMP_SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private FileChannel openWal(long walGeneration) throws IOException {
+        return FileChannel.open(directory.resolve(fileName(WAL_PREFIX, walGeneration, WAL_SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static String fileName(String prefix, long fileGeneration, String suffix) {
+        return String.format("%s%016d%s", prefix, fileGeneration, suffix);
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(out, buffer);
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,78 @@
+package com.hello.core.member;
+
+/*
+ - TinyLFU 에서 쓰는 접근 빈도 추정기 (count-min sketch)
+ - long 하나에 4비트 카운터 16개를 담고, 키마다 해시 4개로 고른 카운터 중 최솟값을 빈도로 본다.
+ - 카운터는 15 에서 멈추고, 증가 횟수가 sampleSize 에 닿으면 모든 카운터를 절반으로 줄여서(aging) 예전 인기 항목이 계속 남지 않게 한다.
+ - 스레드 안전하지 않으므로 호출하는 쪽(CachingMemberRepository)의 락 안에서만 사용한다.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    FrequencySketch(int maximumSize) {
+        int capacity = LongMemberMap.tableSizeFor(Math.max(8, maximumSize));
+        this.table = new long[capacity];
+        this.tableMask = capacity - 1;
+        this.sampleSize = 10 * Math.max(8, maximumSize);
+    }
+
+    int frequency(long key) {
+        long hash = spread(key);
+        int start = (int) (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xFL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(long key) {
+        long hash = spread(key);
+        int start = (int) (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int shift = counter << 2;
+        long mask = 0xFL << shift;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << shift;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size >>>= 1;
+    }
+
+    private int indexOf(long hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    private static long spread(long key) {
+        long h = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return h ^ (h >>> 33);
+    }
+}
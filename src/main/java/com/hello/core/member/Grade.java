@@ -2,5 +2,16 @@ package com.hello.core.member;
 
 public enum Grade {
     BASIC,
-    VIP
+    VIP;
+
+    private static final Grade[] VALUES = values();
+
+    // 배열(byte[])에 담기 위한 1바이트 코드
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public static Grade fromCode(byte code) {
+        return VALUES[code];
+    }
 }
@@ -0,0 +1,179 @@
+package com.hello.core.member;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/*
+ - 관계형 DB(JDBC)에 회원을 저장하는 MemberRepository 구현
+ - 기본은 내장 H2 이고, MERGE ... KEY 문법만 H2 전용이다. (다른 DB 면 upsertSql 만 바꾸면 된다)
+ - 쓰기
+    - saveAll 은 PreparedStatement 배치(addBatch/executeBatch)로 batchSize 개씩 묶어서 보내고, 전체를 트랜잭션 하나로 커밋한다.
+      문장마다 커밋하면 회원 수만큼 로그 flush 가 일어나기 때문이다.
+ - 읽기
+    - findAllById 는 id 를 IN (?, ?, ...) 묶음으로 나눠 조회한다. 묶음 크기를 IN_CHUNK_SIZE 로 고정해서 prepared statement 캐시가 재사용된다.
+    - forEach 는 fetchSize 단위로 커서를 읽어서, 전체 결과를 메모리에 올리지 않는다.
+ - 커넥션 풀은 pooledDataSource(...) 로 만든 HikariCP 를 쓰거나, 스프링이 만든 DataSource 빈을 그대로 넘겨도 된다.
+ */
+public class JdbcMemberRepository implements MemberRepository {
+
+    public static final String DEFAULT_URL = "jdbc:h2:mem:members;DB_CLOSE_DELAY=-1";
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    private static final int IN_CHUNK_SIZE = 256;
+    private static final int FETCH_SIZE = 1_000;
+
+    private static final String UPSERT_SQL = "merge into members (id, name, grade) key (id) values (?, ?, ?)";
+    private static final String SELECT_SQL = "select id, name, grade from members";
+
+    private static final RowMapper<Member> MEMBER_ROW_MAPPER = (rs, rowNum) -> {
+        String grade = rs.getString("grade");
+        return new Member(rs.getLong("id"), rs.getString("name"), grade == null ? null : Grade.valueOf(grade));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    // IN 절 묶음 크기가 늘 같으므로 SQL 도 한 번만 만든다.
+    private final String selectInSql;
+
+    public JdbcMemberRepository(DataSource dataSource) {
+        this(dataSource, DEFAULT_BATCH_SIZE);
+    }
+
+    public JdbcMemberRepository(DataSource dataSource, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.batchSize = batchSize;
+        this.selectInSql = SELECT_SQL + " where id in (" + String.join(", ", Collections.nCopies(IN_CHUNK_SIZE, "?")) + ")";
+        createSchema();
+    }
+
+    /**
+     * 크기가 고정된 HikariCP 커넥션 풀을 만든다.
+     * 풀 크기는 코어 수 정도가 적당하다. 커넥션이 CPU 보다 많으면 DB 안에서 문맥 교환만 늘어난다.
+     * minimumIdle 을 최대 크기와 같게 둬서 부하가 몰릴 때 커넥션을 새로 여는 지연이 없게 한다.
+     */
+    public static HikariDataSource pooledDataSource(String jdbcUrl, int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl);
+        config.setPoolName("member-pool");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(3_000);
+        return new HikariDataSource(config);
+    }
+
+    public static HikariDataSource pooledDataSource() {
+        return pooledDataSource(DEFAULT_URL, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public void save(Member member) {
+        jdbcTemplate.update(UPSERT_SQL, member.getId(), member.getName(), gradeName(member.getGrade()));
+    }
+
+    @Override
+    public void saveAll(List<Member> members) {
+        if (members.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPSERT_SQL, members, batchSize, (ps, member) -> {
+                    ps.setLong(1, member.getId());
+                    ps.setString(2, member.getName());
+                    if (member.getGrade() == null) {
+                        ps.setNull(3, Types.VARCHAR);
+                    } else {
+                        ps.setString(3, member.getGrade().name());
+                    }
+                }));
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        List<Member> found = jdbcTemplate.query(SELECT_SQL + " where id = ?", MEMBER_ROW_MAPPER, memberId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    public List<Member> findAllById(List<Long> memberIds) {
+        Map<Long, Member> found = new HashMap<>(memberIds.size() * 2);
+        Object[] args = new Object[IN_CHUNK_SIZE];
+        for (int from = 0; from < memberIds.size(); from += IN_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CHUNK_SIZE, memberIds.size());
+            for (int i = 0; i < IN_CHUNK_SIZE; i++) {
+                // 마지막 묶음은 첫 id 로 채워서 같은 SQL 을 쓴다.
+                args[i] = memberIds.get(from + i < to ? from + i : from);
+            }
+            for (Member member : jdbcTemplate.query(selectInSql, MEMBER_ROW_MAPPER, args)) {
+                found.put(member.getId(), member);
+            }
+        }
+        List<Member> result = new ArrayList<>(memberIds.size());
+        for (Long memberId : memberIds) {
+            result.add(found.get(memberId));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        return jdbcTemplate.query(SELECT_SQL + " where grade = ?", MEMBER_ROW_MAPPER, grade.name());
+    }
+
+    @Override
+    public List<Member> findByNamePrefix(String prefix) {
+        return jdbcTemplate.query(SELECT_SQL + " where name like ? escape '\\' order by name, id",
+                MEMBER_ROW_MAPPER, escapeLike(prefix) + "%");
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            action.accept(MEMBER_ROW_MAPPER.mapRow(rs, 0));
+        });
+    }
+
+    public int size() {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from members", Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private void createSchema() {
+        jdbcTemplate.execute("create table if not exists members ("
+                + "id bigint primary key, "
+                + "name varchar(255), "
+                + "grade varchar(16))");
+        jdbcTemplate.execute("create index if not exists members_grade on members (grade)");
+        jdbcTemplate.execute("create index if not exists members_name on members (name, id)");
+    }
+
+    private static String gradeName(Grade grade) {
+        return grade == null ? null : grade.name();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,76 @@
+package com.hello.core.member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+ - MemoryMemberRepository 와 같은 역할이지만 저장소를 ConcurrentHashMap<Long, Member> 대신 LongMemberMap 으로 바꾼 구현
+ - 회원 수가 수천만 단위가 되면 힙의 대부분이 맵 오버헤드(Long 박싱 + 해시 노드)가 되는 문제를 줄이기 위한 용도이다.
+ - findById(long) 을 직접 구현하므로 OrderServiceImpl.createOrder(long, ...) 경로에서는 박싱이 일어나지 않는다.
+ - MemoryMemberRepository 와 달리 static 저장소가 아니므로 인스턴스마다 독립된 저장소를 가진다.
+ - @Component 를 붙이면 MemberRepository 타입 빈이 2개가 되어 자동 주입이 깨지므로, AppConfig 처럼 수동으로 등록해서 사용한다.
+ */
+public class LongKeyMemberRepository implements MemberRepository {
+
+    private final LongMemberMap store;
+    private final MemberIndex index = new MemberIndex();
+
+    public LongKeyMemberRepository() {
+        this.store = new LongMemberMap();
+    }
+
+    public LongKeyMemberRepository(int concurrencyLevel, int initialCapacity) {
+        this.store = new LongMemberMap(concurrencyLevel, initialCapacity / Math.max(1, concurrencyLevel));
+    }
+
+    @Override
+    public void save(Member member) {
+        // 인덱스는 세그먼트 쓰기 락 안에서 갱신한다. 같은 id 를 동시에 저장해도 저장 순서와 인덱스 갱신 순서가 같다.
+        store.put(member.getId(), member, (previous, current) -> index.update(current));
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return store.get(memberId);
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        return store.get(memberId);
+    }
+
+    // 세그먼트별로 모아서 세그먼트 락을 배치당 한 번씩만 잡는다.
+    @Override
+    public void saveAll(List<Member> members) {
+        store.putAll(members, (previous, current) -> index.update(current));
+    }
+
+    @Override
+    public List<Member> findAllById(List<Long> memberIds) {
+        List<Member> result = new ArrayList<>(memberIds.size());
+        for (Long memberId : memberIds) {
+            result.add(store.get(memberId));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        return index.findByGrade(grade, store::get);
+    }
+
+    @Override
+    public List<Member> findByNamePrefix(String prefix) {
+        return index.findByNamePrefix(prefix, store::get);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        store.forEach(action);
+    }
+
+    public int size() {
+        return store.size();
+    }
+}
@@ -0,0 +1,313 @@
+package com.hello.core.member;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/*
+ - long 키 전용 동시성 오픈 어드레싱(open addressing) 맵
+ - ConcurrentHashMap<Long, Member> 는 엔트리마다 Long 박싱 객체와 해시 노드 객체가 하나씩 생긴다.
+ - 여기서는 키는 long[], 값은 Member[] 배열 슬롯에 바로 넣기 때문에 엔트리당 오버헤드가 배열 칸 두 개로 줄어든다.
+ - 키 공간을 세그먼트로 나누고 세그먼트마다 StampedLock 을 둔다.
+    - 쓰기(put)는 해당 세그먼트의 쓰기 락만 잡는다. 리사이즈도 세그먼트 단위로 따로 일어난다.
+    - 읽기(get)는 낙관적 읽기(tryOptimisticRead)로 락 없이 처리하고, 중간에 쓰기가 끼어든 경우에만 읽기 락으로 다시 읽는다.
+ - 값이 null 인 슬롯을 빈 슬롯으로 사용하므로 null 값은 저장할 수 없다. (삭제는 지원하지 않는다)
+ - put/putAll 에 onPut(이전 값, 새 값) 을 넘기면 세그먼트 쓰기 락 안에서 호출한다.
+   같은 키의 쓰기 순서대로 호출되므로 보조 인덱스를 저장 순서와 어긋나지 않게 갱신할 수 있다. (락 안이므로 가벼운 작업만 한다)
+ */
+final class LongMemberMap {
+
+    static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    static final int DEFAULT_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    LongMemberMap() {
+        this(DEFAULT_CONCURRENCY_LEVEL, DEFAULT_SEGMENT_CAPACITY);
+    }
+
+    LongMemberMap(int concurrencyLevel, int segmentCapacity) {
+        int segmentCount = tableSizeFor(Math.max(1, concurrencyLevel));
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(tableSizeFor(Math.max(2, segmentCapacity)));
+        }
+    }
+
+    Member get(long key) {
+        int hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    /**
+     * @return 기존에 저장되어 있던 값, 없었으면 null
+     */
+    Member put(long key, Member value) {
+        return put(key, value, null);
+    }
+
+    /**
+     * @param onPut null 이 아니면 세그먼트 쓰기 락 안에서 (기존 값, value) 로 호출한다.
+     * @return 기존에 저장되어 있던 값, 없었으면 null
+     */
+    Member put(long key, Member value, BiConsumer<? super Member, ? super Member> onPut) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        int hash = hash(key);
+        return segmentFor(hash).put(key, hash, value, onPut);
+    }
+
+    /**
+     * 한 번 훑어서 세그먼트별로 나눈 뒤(counting sort), 세그먼트마다 쓰기 락을 한 번만 잡고 넣는다.
+     * 같은 키가 여러 번 있으면 뒤에 있는 값이 남는다.
+     *
+     * @param onPut null 이 아니면 세그먼트 쓰기 락 안에서 회원마다 (기존 값, 새 값) 으로 호출한다.
+     */
+    void putAll(List<Member> members, BiConsumer<? super Member, ? super Member> onPut) {
+        int n = members.size();
+        int[] hashes = new int[n];
+        int[] counts = new int[segments.length + 1];
+        for (int i = 0; i < n; i++) {
+            Member member = members.get(i);
+            if (member == null) {
+                throw new NullPointerException("value");
+            }
+            hashes[i] = hash(member.getId());
+            counts[segmentIndex(hashes[i]) + 1]++;
+        }
+        for (int s = 0; s < segments.length; s++) {
+            counts[s + 1] += counts[s];
+        }
+        int[] order = new int[n];
+        int[] next = Arrays.copyOf(counts, segments.length);
+        for (int i = 0; i < n; i++) {
+            order[next[segmentIndex(hashes[i])]++] = i;
+        }
+        for (int s = 0; s < segments.length; s++) {
+            if (counts[s] != counts[s + 1]) {
+                segments[s].putAll(members, hashes, order, counts[s], counts[s + 1], onPut);
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * 세그먼트 테이블을 복사하지 않고 그 자리에서 훑는다. (회원 수와 상관없이 추가 메모리가 들지 않는다)
+     * 칸마다 낙관적 읽기로 값을 읽고, 락을 잡지 않은 채로 action 을 호출하므로 action 안에서 save 해도 된다.
+     * 순회 도중의 쓰기는 보일 수도, 안 보일 수도 있다.
+     */
+    void forEach(Consumer<? super Member> action) {
+        for (Segment segment : segments) {
+            segment.forEach(action);
+        }
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[segmentIndex(hash)];
+    }
+
+    private int segmentIndex(int hash) {
+        // 슬롯 위치는 하위 비트를 쓰므로 세그먼트는 상위 비트로 고른다.
+        return (hash >>> 24) & segmentMask;
+    }
+
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static int tableSizeFor(int capacity) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(capacity - 1);
+        return n < 0 ? 1 : n + 1;
+    }
+
+    // keys, values 를 한 번에 교체하기 위해 하나의 객체로 묶는다. (낙관적 읽기 도중 길이가 다른 배열을 섞어 읽지 않도록)
+    private static final class Table {
+        final long[] keys;
+        final Member[] values;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Member[capacity];
+        }
+    }
+
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private Table table;
+        private int size;
+
+        Segment(int capacity) {
+            this.table = new Table(capacity);
+        }
+
+        Member get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                Member found = find(table, key, hash);
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        Member put(long key, int hash, Member value, BiConsumer<? super Member, ? super Member> onPut) {
+            long stamp = lock.writeLock();
+            try {
+                Member previous = putLocked(key, hash, value);
+                if (onPut != null) {
+                    onPut.accept(previous, value);
+                }
+                return previous;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void putAll(List<Member> members, int[] hashes, int[] order, int from, int to,
+                    BiConsumer<? super Member, ? super Member> onPut) {
+            long stamp = lock.writeLock();
+            try {
+                for (int k = from; k < to; k++) {
+                    int i = order[k];
+                    Member member = members.get(i);
+                    Member old = putLocked(member.getId(), hashes[i], member);
+                    if (onPut != null) {
+                        onPut.accept(old, member);
+                    }
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private Member putLocked(long key, int hash, Member value) {
+            Table t = table;
+            int mask = t.keys.length - 1;
+            int i = hash & mask;
+            while (t.values[i] != null) {
+                if (t.keys[i] == key) {
+                    Member previous = t.values[i];
+                    t.values[i] = value;
+                    return previous;
+                }
+                i = (i + 1) & mask;
+            }
+            t.keys[i] = key;
+            t.values[i] = value;
+            // 선형 탐사는 적재율이 높아지면 탐색 길이가 급격히 길어지므로 0.5 를 넘으면 늘린다.
+            if (++size > (t.keys.length >>> 1)) {
+                table = resize(t);
+            }
+            return null;
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // 리사이즈되면 순회 중인 옛 테이블은 더 이상 바뀌지 않으므로 그대로 끝까지 훑는다.
+        void forEach(Consumer<? super Member> action) {
+            Table t = currentTable();
+            for (int i = 0; i < t.values.length; i++) {
+                Member member = slot(t, i);
+                if (member != null) {
+                    action.accept(member);
+                }
+            }
+        }
+
+        private Table currentTable() {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                Table t = table;
+                if (lock.validate(stamp)) {
+                    return t;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return table;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // validate 가 성공하면 마지막 쓰기 락 해제 이전의 쓰기가 모두 보이므로, 읽은 Member 가 덜 만들어진 상태일 수 없다.
+        private Member slot(Table t, int i) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                Member member = t.values[i];
+                if (lock.validate(stamp)) {
+                    return member;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return t.values[i];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private static Member find(Table t, long key, int hash) {
+            long[] keys = t.keys;
+            Member[] values = t.values;
+            int mask = keys.length - 1;
+            int i = hash & mask;
+            // 낙관적 읽기 중에는 값이 어긋나 있을 수 있으므로 무한 루프를 막기 위해 테이블 길이만큼만 돈다.
+            for (int probe = 0; probe < keys.length; probe++) {
+                Member value = values[i];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[i] == key) {
+                    return value;
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        private static Table resize(Table old) {
+            Table t = new Table(old.keys.length << 1);
+            int mask = t.keys.length - 1;
+            for (int j = 0; j < old.keys.length; j++) {
+                Member value = old.values[j];
+                if (value == null) {
+                    continue;
+                }
+                int i = hash(old.keys[j]) & mask;
+                while (t.values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                t.keys[i] = old.keys[j];
+                t.values[i] = value;
+            }
+            return t;
+        }
+    }
+}
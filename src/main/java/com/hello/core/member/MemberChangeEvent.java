@@ -0,0 +1,48 @@
+package com.hello.core.member;
+
+/*
+ - 회원 변경 이벤트 한 건 (MemberChangeStream 이 구독자에게 넘긴다)
+ - 구독자마다 하나씩 미리 만들어 두고 이벤트마다 값을 덮어써서 재사용한다. (이벤트마다 객체를 만들지 않는다)
+ - 그래서 onEvent 밖으로 들고 나가면 안 되고, 보관하려면 toMemberValue() 로 복사한다.
+ */
+public final class MemberChangeEvent {
+
+    long sequence;
+    long memberId;
+    String name;
+    Grade grade;
+
+    MemberChangeEvent() {
+    }
+
+    // 스트림 안에서 이 이벤트의 순번, 1 부터 증가한다.
+    public long sequence() {
+        return sequence;
+    }
+
+    public long memberId() {
+        return memberId;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Grade grade() {
+        return grade;
+    }
+
+    public MemberValue toMemberValue() {
+        return new MemberValue(memberId, name, grade);
+    }
+
+    @Override
+    public String toString() {
+        return "MemberChangeEvent{" +
+                "sequence=" + sequence +
+                ", memberId=" + memberId +
+                ", name='" + name + '\'' +
+                ", grade=" + grade +
+                '}';
+    }
+}
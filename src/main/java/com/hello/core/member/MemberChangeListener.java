@@ -0,0 +1,12 @@
+package com.hello.core.member;
+
+/**
+ * 회원 변경 구독자
+ * 구독자 전용 스레드에서 순번 순서대로 호출된다. endOfBatch 는 지금 읽을 수 있는 이벤트의 마지막이라는 뜻이라,
+ * 이벤트를 모아 두었다가 endOfBatch 에서 한 번에 처리하면(예: 검색 색인 일괄 반영) 호출 비용을 줄일 수 있다.
+ */
+@FunctionalInterface
+public interface MemberChangeListener {
+
+    void onEvent(MemberChangeEvent event, boolean endOfBatch) throws Exception;
+}
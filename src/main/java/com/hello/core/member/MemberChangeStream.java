@@ -0,0 +1,234 @@
+package com.hello.core.member;
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ - 회원 변경 스트림 (change data capture)
+ - save 한 회원을 미리 할당한 링 버퍼에 기록하고, 구독자마다 전용 스레드가 따라 읽으며 MemberChangeListener 에 넘긴다.
+
+ 쓰기 (publish)
+ - cursor.incrementAndGet() 으로 순번을 하나 받고, 순번 % capacity 칸에 값을 덮어쓴다. 락도, 구독자 신호(notify)도 없다.
+ - 구독자를 기다리지 않는다. 느린 구독자가 capacity 이상 뒤처지면 그 사이 이벤트는 덮어써져서 잃어버리고 lost 로 센다.
+
+ 칸 하나 = seqlock
+ - stamps[칸] 이 순번이면 기록 완료, -순번이면 기록 중이다.
+ - 읽는 쪽은 stamp 확인 -> 값 복사 -> stamp 재확인 순서로 읽고, 그 사이 stamp 가 바뀌었으면 덮어써진 것으로 본다.
+
+ 읽기 (구독자 스레드)
+ - 읽을 수 있는 이벤트를 maxBatchSize 까지 연달아 넘기고, 마지막 것에 endOfBatch = true 를 준다.
+ - 읽을 게 없으면 잠깐 spin 하다가 parkNanos 로 쉰다. (쓰는 쪽이 깨워주지 않는 대신 쓰기 경로가 가볍다)
+ - lag = 발행된 마지막 순번 - 구독자가 처리한 마지막 순번
+ */
+public class MemberChangeStream implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final int SPIN_TRIES = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    // Subscription.read 의 결과
+    private static final int READY = 0;
+    private static final int NOT_PUBLISHED = 1;
+    private static final int OVERWRITTEN = 2;
+
+    private final int mask;
+    private final AtomicLongArray stamps;
+    private final long[] memberIds;
+    private final String[] names;
+    private final Grade[] grades;
+    private final AtomicLong cursor = new AtomicLong();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public MemberChangeStream() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MemberChangeStream(int capacity) {
+        int size = LongMemberMap.tableSizeFor(capacity);
+        this.mask = size - 1;
+        this.stamps = new AtomicLongArray(size);
+        this.memberIds = new long[size];
+        this.names = new String[size];
+        this.grades = new Grade[size];
+    }
+
+    public void publish(Member member) {
+        publish(member.getId(), member.getName(), member.getGrade());
+    }
+
+    public void publish(long memberId, String name, Grade grade) {
+        long sequence = cursor.incrementAndGet();
+        int slot = (int) sequence & mask;
+        // 한 바퀴 앞선 순번이 같은 칸을 쓰는 중이면 끝날 때까지만 기다린다. (링이 가득 찬 드문 경우)
+        while (true) {
+            long stamp = stamps.get(slot);
+            if (Math.abs(stamp) > sequence) {
+                // 이미 더 새로운 순번이 이 칸을 차지했다. 이 이벤트는 어차피 덮어써질 것이었다.
+                return;
+            }
+            if (stamp >= 0 && stamps.compareAndSet(slot, stamp, -sequence)) {
+                break;
+            }
+            Thread.onSpinWait();
+        }
+        memberIds[slot] = memberId;
+        names[slot] = name;
+        grades[slot] = grade;
+        stamps.set(slot, sequence);
+    }
+
+    /**
+     * 구독자를 등록하고 전용 스레드를 띄운다. 등록한 시점 이후에 발행된 이벤트부터 받는다.
+     */
+    public Subscription subscribe(String name, MemberChangeListener listener) {
+        Subscription subscription = new Subscription(name, listener, cursor.get());
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    // 마지막으로 발행된 순번
+    public long cursor() {
+        return cursor.get();
+    }
+
+    public List<SubscriptionStats> stats() {
+        return subscriptions.stream().map(Subscription::stats).toList();
+    }
+
+    @Override
+    public void close() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+        subscriptions.clear();
+    }
+
+    /**
+     * 구독자 하나 (전용 스레드 하나)
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final String name;
+        private final MemberChangeListener listener;
+        private final Thread thread;
+        private final MemberChangeEvent event = new MemberChangeEvent();
+        // 구독자 스레드만 쓰고, 통계를 읽는 쪽을 위해 volatile
+        private volatile long processed;
+        private volatile long lost;
+        private volatile long failures;
+        private volatile long lastSequence;
+        private volatile boolean running = true;
+
+        private Subscription(String name, MemberChangeListener listener, long startAfter) {
+            this.name = name;
+            this.listener = listener;
+            this.lastSequence = startAfter;
+            this.thread = new Thread(this::run, "member-change-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        public long lag() {
+            return Math.max(0, cursor.get() - lastSequence);
+        }
+
+        public SubscriptionStats stats() {
+            return new SubscriptionStats(name, processed, lag(), lost, failures);
+        }
+
+        @Override
+        public void close() {
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            subscriptions.remove(this);
+        }
+
+        private void run() {
+            long next = lastSequence + 1;
+            int idle = 0;
+            while (running) {
+                int batch = 0;
+                while (batch < MAX_BATCH_SIZE) {
+                    int state = read(next);
+                    if (state == NOT_PUBLISHED) {
+                        break;
+                    }
+                    if (state == OVERWRITTEN) {
+                        next = skipLost(next);
+                        continue;
+                    }
+                    // event 는 하나를 재사용하므로 다음 칸은 stamp 만 보고 배치의 끝인지 판단한다.
+                    boolean endOfBatch = batch + 1 == MAX_BATCH_SIZE || !isPublished(next + 1);
+                    deliver(next, endOfBatch);
+                    next++;
+                    batch++;
+                }
+                if (batch > 0) {
+                    idle = 0;
+                } else if (++idle > SPIN_TRIES) {
+                    LockSupport.parkNanos(PARK_NANOS);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        private void deliver(long sequence, boolean endOfBatch) {
+            try {
+                listener.onEvent(event, endOfBatch);
+            } catch (Exception e) {
+                // 구독자 하나의 실패가 스트림을 멈추지 않도록 세기만 하고 넘어간다.
+                failures++;
+            }
+            processed++;
+            lastSequence = sequence;
+        }
+
+        // sequence 칸을 event 에 복사한다.
+        private int read(long sequence) {
+            int slot = (int) sequence & mask;
+            long stamp = stamps.get(slot);
+            if (stamp != sequence) {
+                return Math.abs(stamp) > sequence ? OVERWRITTEN : NOT_PUBLISHED;
+            }
+            event.memberId = memberIds[slot];
+            event.name = names[slot];
+            event.grade = grades[slot];
+            event.sequence = sequence;
+            // 값을 읽은 뒤에 stamp 를 다시 읽도록 순서를 고정한다.
+            VarHandle.acquireFence();
+            return stamps.get(slot) == sequence ? READY : OVERWRITTEN;
+        }
+
+        private boolean isPublished(long sequence) {
+            return stamps.get((int) sequence & mask) == sequence;
+        }
+
+        // 덮어써진 구간을 lost 로 세고, 링에 남아 있는 가장 옛 순번으로 건너뛴다.
+        private long skipLost(long sequence) {
+            long oldest = Math.max(sequence + 1, cursor.get() - mask);
+            lost += oldest - sequence;
+            return oldest;
+        }
+    }
+
+    /**
+     * 구독자 하나의 누적 통계
+     *
+     * @param lag 아직 처리하지 않은 이벤트 수
+     * @param lost 뒤처져서 덮어써진(받지 못한) 이벤트 수
+     */
+    public record SubscriptionStats(String name, long processed, long lag, long lost, long failures) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.hello.core.member;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/*
+ - 회원 한 명을 바이너리 레코드 하나로 직렬화/역직렬화한다.
+ - 레코드 = [int 본문 길이][int CRC32C(본문)][본문: long id, byte grade, int 이름 길이, UTF-8 이름]
+    - grade 는 Grade.code(), null 이면 -1
+    - 이름 길이가 -1 이면 null 이름
+ - 길이와 CRC 를 앞에 두기 때문에 파일 끝이 중간에 잘린 레코드(torn write)를 읽는 쪽에서 알아챌 수 있다.
+ */
+final class MemberCodec {
+
+    static final int FRAME_HEADER_BYTES = 8;
+    private static final int MIN_BODY_BYTES = 8 + 1 + 4;
+    static final int MAX_BODY_BYTES = 1 << 20;
+    // 한 번에 매핑하는 크기, 파일이 2GB 를 넘어도 창(window)을 옮겨가며 읽는다.
+    private static final long MAX_MAPPED_WINDOW = 1L << 30;
+
+    private MemberCodec() {
+    }
+
+    static byte[] encode(Member member) {
+        byte[] name = member.getName() == null ? null : member.getName().getBytes(StandardCharsets.UTF_8);
+        int bodyLength = MIN_BODY_BYTES + (name == null ? 0 : name.length);
+        ByteBuffer buffer = ByteBuffer.allocate(FRAME_HEADER_BYTES + bodyLength);
+        buffer.putInt(bodyLength);
+        buffer.putInt(0);
+        buffer.putLong(member.getId());
+        buffer.put(member.getGrade() == null ? -1 : member.getGrade().code());
+        if (name == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(name.length);
+            buffer.put(name);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), FRAME_HEADER_BYTES, bodyLength);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    static Member decodeBody(ByteBuffer body) {
+        long id = body.getLong();
+        byte grade = body.get();
+        int nameLength = body.getInt();
+        String name = null;
+        if (nameLength >= 0) {
+            byte[] bytes = new byte[nameLength];
+            body.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new Member(id, name, grade < 0 ? null : Grade.fromCode(grade));
+    }
+
+    /**
+     * buffer 의 현재 위치에서 레코드 하나를 읽고 위치를 레코드 뒤로 옮긴다. (스트림으로 읽을 때 사용)
+     *
+     * @return 레코드가 아직 다 들어오지 않았으면 null (위치는 그대로)
+     * @throws IOException 길이가 범위를 벗어나거나 CRC 가 맞지 않는 경우
+     */
+    static Member decode(ByteBuffer buffer, CRC32C crc) throws IOException {
+        if (buffer.remaining() < FRAME_HEADER_BYTES) {
+            return null;
+        }
+        int frameStart = buffer.position();
+        int bodyLength = buffer.getInt(frameStart);
+        if (bodyLength < MIN_BODY_BYTES || bodyLength > MAX_BODY_BYTES) {
+            throw new IOException("잘못된 레코드 길이: " + bodyLength);
+        }
+        if (buffer.remaining() < FRAME_HEADER_BYTES + bodyLength) {
+            return null;
+        }
+        ByteBuffer body = buffer.slice(frameStart + FRAME_HEADER_BYTES, bodyLength);
+        crc.reset();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != buffer.getInt(frameStart + 4)) {
+            throw new IOException("CRC 가 맞지 않는 레코드");
+        }
+        buffer.position(frameStart + FRAME_HEADER_BYTES + bodyLength);
+        return decodeBody(body);
+    }
+
+    /**
+     * start 위치부터 파일 끝까지 레코드를 읽어 action 에 넘긴다.
+     * 잘리거나 CRC 가 맞지 않는 레코드를 만나면 거기서 멈춘다.
+     *
+     * @return 마지막으로 온전하게 읽은 레코드의 끝 위치
+     */
+    static long readAll(FileChannel channel, long start, Consumer<Member> action) throws IOException {
+        long size = channel.size();
+        long position = start;
+        CRC32C crc = new CRC32C();
+        while (position < size) {
+            long window = Math.min(size - position, MAX_MAPPED_WINDOW);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+            int consumed = 0;
+            while (buffer.remaining() >= FRAME_HEADER_BYTES) {
+                int frameStart = buffer.position();
+                int bodyLength = buffer.getInt(frameStart);
+                if (bodyLength < MIN_BODY_BYTES || bodyLength > MAX_BODY_BYTES) {
+                    return position + consumed;
+                }
+                if (buffer.remaining() < FRAME_HEADER_BYTES + bodyLength) {
+                    // 창 경계에 걸친 레코드는 다음 창에서 다시 읽는다.
+                    break;
+                }
+                ByteBuffer body = buffer.slice(frameStart + FRAME_HEADER_BYTES, bodyLength);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != buffer.getInt(frameStart + 4)) {
+                    return position + consumed;
+                }
+                action.accept(decodeBody(body));
+                buffer.position(frameStart + FRAME_HEADER_BYTES + bodyLength);
+                consumed += FRAME_HEADER_BYTES + bodyLength;
+            }
+            if (consumed == 0) {
+                // 파일 끝에 남은 조각이 레코드 하나도 못 되는 경우
+                return position;
+            }
+            position += consumed;
+        }
+        return position;
+    }
+}
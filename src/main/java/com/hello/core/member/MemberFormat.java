@@ -0,0 +1,11 @@
+package com.hello.core.member;
+
+/*
+ - MemberTransfer 가 읽고 쓰는 회원 파일 형식
+ - NDJSON : 한 줄에 회원 한 명, {"id":1,"name":"memberA","grade":"VIP"} (사람이 읽고 다른 도구로 옮기기 쉽다)
+ - BINARY : 헤더 뒤에 MemberCodec 레코드를 이어 붙인 형식 (작고 빠르며 레코드마다 CRC 로 손상을 확인한다)
+ */
+public enum MemberFormat {
+    NDJSON,
+    BINARY
+}
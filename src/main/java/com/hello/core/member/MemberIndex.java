@@ -0,0 +1,104 @@
+package com.hello.core.member;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongFunction;
+
+/*
+ - 회원 저장소의 보조 인덱스 (등급, 이름)
+    - 등급 인덱스: 등급마다 회원 id 집합을 따로 둬서, "VIP 전체" 같은 조회가 전체 스캔 없이 해당 등급만 순회한다.
+    - 이름 인덱스: (이름, id) 순으로 정렬된 집합이라 "X 로 시작하는 이름" 조회를 범위 탐색으로 처리한다.
+ - 저장소의 save 에서 update(새 회원) 를 호출해서 유지한다.
+ - id 마다 마지막으로 색인한 (등급, 이름) 을 따로 적어 두고 그것과 비교한다.
+   Member 는 setter 가 있어서, 꺼낸 객체를 고쳐서 그대로 save 하면 저장소의 이전 값도 이미 바뀌어 있기 때문이다.
+ - 같은 id 에 대한 save 가 동시에 일어나면 잠깐 옛 항목이 남을 수 있으므로,
+   조회 시 id 로 현재 회원을 다시 읽어서 조건에 맞는지 한 번 더 확인한다.
+ */
+final class MemberIndex {
+
+    private static final Comparator<NameKey> NAME_ORDER =
+            Comparator.comparing(NameKey::name).thenComparingLong(NameKey::id);
+
+    private final Map<Grade, Set<Long>> byGrade = new EnumMap<>(Grade.class);
+    private final NavigableSet<NameKey> byName = new ConcurrentSkipListSet<>(NAME_ORDER);
+    // id -> 마지막으로 색인한 값
+    private final Map<Long, Indexed> indexed = new ConcurrentHashMap<>();
+
+    MemberIndex() {
+        for (Grade grade : Grade.values()) {
+            byGrade.put(grade, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    // 새 항목을 먼저 넣고 옛 항목을 지워서, 조회 중에 회원이 인덱스에서 잠깐 사라지는 일이 없게 한다.
+    // 같은 id 에 대한 호출은 저장소가 순서대로 한다. (compute, 세그먼트 쓰기 락 등)
+    void update(Member current) {
+        long id = current.getId();
+        Grade grade = current.getGrade();
+        String name = current.getName();
+        Indexed previous = indexed.put(id, new Indexed(grade, name));
+        Grade previousGrade = previous == null ? null : previous.grade();
+        if (grade != previousGrade) {
+            if (grade != null) {
+                byGrade.get(grade).add(id);
+            }
+            if (previousGrade != null) {
+                byGrade.get(previousGrade).remove(id);
+            }
+        }
+        String previousName = previous == null ? null : previous.name();
+        if (!Objects.equals(name, previousName)) {
+            if (name != null) {
+                byName.add(new NameKey(name, id));
+            }
+            if (previousName != null) {
+                byName.remove(new NameKey(previousName, id));
+            }
+        }
+    }
+
+    /**
+     * @param lookup id 로 현재 회원을 찾는 함수 (저장소의 findById)
+     */
+    List<Member> findByGrade(Grade grade, LongFunction<Member> lookup) {
+        List<Member> result = new ArrayList<>();
+        for (Long id : byGrade.get(grade)) {
+            Member member = lookup.apply(id);
+            if (member != null && member.getGrade() == grade) {
+                result.add(member);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return 이름 순(같은 이름이면 id 순)으로 정렬된 회원 목록
+     */
+    List<Member> findByNamePrefix(String prefix, LongFunction<Member> lookup) {
+        List<Member> result = new ArrayList<>();
+        for (NameKey key : byName.tailSet(new NameKey(prefix, Long.MIN_VALUE), true)) {
+            if (!key.name().startsWith(prefix)) {
+                break;
+            }
+            Member member = lookup.apply(key.id());
+            if (member != null && key.name().equals(member.getName())) {
+                result.add(member);
+            }
+        }
+        return result;
+    }
+
+    private record NameKey(String name, long id) {
+    }
+
+    private record Indexed(Grade grade, String name) {
+    }
+}
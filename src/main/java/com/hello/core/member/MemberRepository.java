@@ -1,8 +1,49 @@
 package com.hello.core.member;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface MemberRepository {
 
     void  save(Member member);
 
     Member findById(Long memberId);
+
+    // 박싱 없이 조회하기 위한 오버로드, 기본 구현은 Long 버전으로 위임한다.
+    default Member findById(long memberId) {
+        return findById(Long.valueOf(memberId));
+    }
+
+    // 대량 저장, 기본 구현은 단건 save 를 반복한다. 구현체에서 한 번에 처리할 수 있으면 재정의한다.
+    default void saveAll(List<Member> members) {
+        for (Member member : members) {
+            save(member);
+        }
+    }
+
+    /**
+     * @return memberIds 와 같은 순서의 회원 목록, 없는 회원 자리는 null
+     */
+    default List<Member> findAllById(List<Long> memberIds) {
+        List<Member> result = new ArrayList<>(memberIds.size());
+        for (Long memberId : memberIds) {
+            result.add(findById(memberId));
+        }
+        return result;
+    }
+
+    // 보조 인덱스 조회, 전체 스캔 없이 해당 등급의 회원만 돌려준다.
+    List<Member> findByGrade(Grade grade);
+
+    /**
+     * @return 이름이 prefix 로 시작하는 회원, 이름 순으로 정렬
+     */
+    List<Member> findByNamePrefix(String prefix);
+
+    /**
+     * 저장된 모든 회원을 한 번씩 넘긴다. (내보내기 등 전체 순회용, 순서는 보장하지 않는다)
+     * 순회 중의 save 는 보일 수도, 안 보일 수도 있다.
+     */
+    void forEach(Consumer<? super Member> action);
 }
@@ -1,8 +1,18 @@
 package com.hello.core.member;
 
+import java.util.List;
+
 public interface MemberService {
 
     void join(Member member);
 
+    void join(List<Member> members);
+
     Member findMember(Long memberId);
+
+    List<Member> findMembers(List<Long> memberIds);
+
+    List<Member> findMembersByGrade(Grade grade);
+
+    List<Member> findMembersByNamePrefix(String prefix);
 }
@@ -3,6 +3,8 @@ package com.hello.core.member;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class MemberServiceImpl implements MemberService {
 
@@ -21,11 +23,31 @@ public class MemberServiceImpl implements MemberService {
         memberRepository.save(member);
     }
 
+    @Override
+    public void join(List<Member> members) {
+        memberRepository.saveAll(members);
+    }
+
     @Override
     public Member findMember(Long memberId) {
         return memberRepository.findById(memberId);
     }
 
+    @Override
+    public List<Member> findMembers(List<Long> memberIds) {
+        return memberRepository.findAllById(memberIds);
+    }
+
+    @Override
+    public List<Member> findMembersByGrade(Grade grade) {
+        return memberRepository.findByGrade(grade);
+    }
+
+    @Override
+    public List<Member> findMembersByNamePrefix(String prefix) {
+        return memberRepository.findByNamePrefix(prefix);
+    }
+
     // 테스트 용도
     public MemberRepository getMemberRepository() {
         return memberRepository;
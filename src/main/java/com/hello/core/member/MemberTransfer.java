@@ -0,0 +1,455 @@
+package com.hello.core.member;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/*
+ - 회원 전체를 채널(NIO)로 내보내고(export) 다시 들여오는(import) 도구 (백업, 저장소 이전용)
+ - 내보내기는 MemberRepository.forEach 로 한 명씩 받아서 고정 크기 버퍼에 인코딩하고, 버퍼가 차면 채널에 쓴다.
+ - 들여오기는 고정 크기 버퍼로 채널을 읽으며 한 명씩 디코딩하고, batchSize 명씩 모아서 saveAll 을 한 번 호출한다.
+ - 그래서 데이터가 아무리 커도 쓰는 메모리는 버퍼 + 배치 하나 크기로 일정하다.
+ - 형식은 MemberFormat 참고
+    - BINARY 는 [int MAGIC][int VERSION] 헤더 뒤에 MemberCodec 레코드가 이어진다.
+    - NDJSON 은 id, name, grade 만 읽고 모르는 키는 건너뛴다. name, grade 는 null 일 수 있다.
+ - 읽다가 형식이 맞지 않으면 IOException 을 던진다. 그 전 배치까지는 이미 저장되어 있다.
+ */
+public class MemberTransfer {
+
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    private static final int BINARY_MAGIC = 0x4D425831; // "MBX1"
+    private static final int BINARY_VERSION = 1;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_LINE_BYTES = 1 << 20;
+
+    private final MemberRepository memberRepository;
+    private final int batchSize;
+
+    public MemberTransfer(MemberRepository memberRepository) {
+        this(memberRepository, DEFAULT_BATCH_SIZE);
+    }
+
+    public MemberTransfer(MemberRepository memberRepository, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.memberRepository = memberRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 저장소의 모든 회원을 channel 에 쓴다. channel 은 닫지 않는다.
+     *
+     * @return 내보낸 회원 수
+     */
+    public long exportTo(WritableByteChannel channel, MemberFormat format) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        if (format == MemberFormat.BINARY) {
+            buffer.putInt(BINARY_MAGIC).putInt(BINARY_VERSION);
+        }
+        StringBuilder line = new StringBuilder(128);
+        long[] count = new long[1];
+        try {
+            memberRepository.forEach(member -> {
+                byte[] bytes;
+                if (format == MemberFormat.BINARY) {
+                    bytes = MemberCodec.encode(member);
+                } else {
+                    line.setLength(0);
+                    writeJson(member, line);
+                    bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                }
+                try {
+                    put(channel, buffer, bytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffer.flip();
+        writeFully(channel, buffer);
+        return count[0];
+    }
+
+    /**
+     * channel 을 끝까지 읽어서 회원을 저장한다. 같은 id 가 이미 있으면 덮어쓴다. channel 은 닫지 않는다.
+     *
+     * @return 들여온 회원 수
+     */
+    public long importFrom(ReadableByteChannel channel, MemberFormat format) throws IOException {
+        Batch batch = new Batch();
+        if (format == MemberFormat.BINARY) {
+            readBinary(channel, batch);
+        } else {
+            readNdjson(channel, batch);
+        }
+        batch.flush();
+        return batch.total;
+    }
+
+    private void readBinary(ReadableByteChannel channel, Batch batch) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        CRC32C crc = new CRC32C();
+        boolean eof = !fill(channel, buffer, 8);
+        if (buffer.remaining() < 8 || buffer.getInt() != BINARY_MAGIC) {
+            throw new IOException("회원 바이너리 파일이 아닙니다.");
+        }
+        int version = buffer.getInt();
+        if (version != BINARY_VERSION) {
+            throw new IOException("지원하지 않는 버전: " + version);
+        }
+        while (true) {
+            Member member = MemberCodec.decode(buffer, crc);
+            if (member != null) {
+                batch.add(member);
+                continue;
+            }
+            if (eof) {
+                if (buffer.hasRemaining()) {
+                    throw new IOException("파일 끝의 레코드가 잘렸습니다. (" + buffer.remaining() + " bytes)");
+                }
+                return;
+            }
+            // 레코드가 버퍼보다 크면 그 레코드가 들어갈 만큼만 버퍼를 키운다.
+            if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                buffer = grow(buffer, MemberCodec.FRAME_HEADER_BYTES + MemberCodec.MAX_BODY_BYTES);
+            }
+            buffer.compact();
+            eof = !fill(channel, buffer, buffer.capacity());
+        }
+    }
+
+    private void readNdjson(ReadableByteChannel channel, Batch batch) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        long lineNumber = 0;
+        boolean eof = false;
+        buffer.flip();
+        while (true) {
+            int start = buffer.position();
+            int end = -1;
+            for (int i = start; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    end = i;
+                    break;
+                }
+            }
+            if (end < 0 && eof) {
+                end = buffer.limit();
+                if (start == end) {
+                    return;
+                }
+            }
+            if (end >= 0) {
+                // '\n' 은 UTF-8 멀티바이트 문자 안에 나오지 않으므로 바이트 단위로 잘라도 안전하다.
+                String line = new String(buffer.array(), start, end - start, StandardCharsets.UTF_8);
+                buffer.position(Math.min(end + 1, buffer.limit()));
+                lineNumber++;
+                if (!line.isBlank()) {
+                    try {
+                        batch.add(new JsonLine(line).parseMember());
+                    } catch (IOException e) {
+                        throw new IOException(lineNumber + "번째 줄: " + e.getMessage(), e);
+                    }
+                }
+                continue;
+            }
+            if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                if (buffer.capacity() >= MAX_LINE_BYTES) {
+                    throw new IOException((lineNumber + 1) + "번째 줄이 너무 깁니다.");
+                }
+                buffer = grow(buffer, MAX_LINE_BYTES);
+            }
+            buffer.compact();
+            eof = !fill(channel, buffer, buffer.capacity());
+        }
+    }
+
+    /**
+     * 쓰기 모드의 buffer 를 position 이 target 이상이 되거나 채널이 끝날 때까지 채운 뒤 읽기 모드로 바꾼다.
+     *
+     * @return 채널이 아직 끝나지 않았으면 true
+     */
+    private static boolean fill(ReadableByteChannel channel, ByteBuffer buffer, int target) throws IOException {
+        boolean open = true;
+        while (buffer.position() < target && buffer.hasRemaining()) {
+            int read = channel.read(buffer);
+            if (read < 0) {
+                open = false;
+                break;
+            }
+            if (read == 0) {
+                // non-blocking 채널이면 일단 읽은 만큼만 처리한다.
+                break;
+            }
+        }
+        buffer.flip();
+        return open;
+    }
+
+    // 읽기 모드의 buffer 를 내용은 그대로 두고 더 큰 버퍼로 옮긴다.
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(capacity, buffer.capacity()));
+        bigger.put(buffer);
+        bigger.flip();
+        return bigger;
+    }
+
+    private static void put(WritableByteChannel channel, ByteBuffer buffer, byte[] bytes) throws IOException {
+        if (bytes.length > buffer.remaining()) {
+            buffer.flip();
+            writeFully(channel, buffer);
+            buffer.clear();
+            if (bytes.length > buffer.remaining()) {
+                writeFully(channel, ByteBuffer.wrap(bytes));
+                return;
+            }
+        }
+        buffer.put(bytes);
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void writeJson(Member member, StringBuilder out) {
+        out.append("{\"id\":").append(member.getId()).append(",\"name\":");
+        if (member.getName() == null) {
+            out.append("null");
+        } else {
+            out.append('"');
+            escape(member.getName(), out);
+            out.append('"');
+        }
+        out.append(",\"grade\":");
+        if (member.getGrade() == null) {
+            out.append("null");
+        } else {
+            out.append('"').append(member.getGrade().name()).append('"');
+        }
+        out.append("}\n");
+    }
+
+    private static void escape(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    // batchSize 명씩 모아서 saveAll 로 넘긴다.
+    private final class Batch {
+        private List<Member> members = new ArrayList<>(batchSize);
+        long total;
+
+        void add(Member member) {
+            members.add(member);
+            if (members.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!members.isEmpty()) {
+                memberRepository.saveAll(members);
+                total += members.size();
+                // 저장소가 넘겨받은 목록을 붙잡고 있어도 괜찮도록 새 목록을 쓴다.
+                members = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    /*
+     - 한 줄짜리 평평한(flat) JSON 객체 파서, 값은 문자열/숫자/true/false/null 만 허용한다.
+     */
+    private static final class JsonLine {
+        private final String text;
+        private int pos;
+
+        JsonLine(String text) {
+            this.text = text;
+        }
+
+        Member parseMember() throws IOException {
+            Long id = null;
+            String name = null;
+            Grade grade = null;
+            expect('{');
+            skipWhitespace();
+            if (peek() != '}') {
+                do {
+                    skipWhitespace();
+                    String key = readString();
+                    expect(':');
+                    skipWhitespace();
+                    switch (key) {
+                        case "id" -> id = readLong();
+                        case "name" -> name = readNullableString();
+                        case "grade" -> {
+                            String value = readNullableString();
+                            grade = value == null ? null : parseGrade(value);
+                        }
+                        default -> skipValue();
+                    }
+                    skipWhitespace();
+                } while (tryConsume(','));
+            }
+            expect('}');
+            skipWhitespace();
+            if (pos != text.length()) {
+                throw new IOException("객체 뒤에 남은 문자가 있습니다.");
+            }
+            if (id == null) {
+                throw new IOException("id 가 없습니다.");
+            }
+            return new Member(id, name, grade);
+        }
+
+        private static Grade parseGrade(String value) throws IOException {
+            try {
+                return Grade.valueOf(value);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("알 수 없는 등급: " + value);
+            }
+        }
+
+        private long readLong() throws IOException {
+            int start = pos;
+            if (peek() == '-') {
+                pos++;
+            }
+            while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                pos++;
+            }
+            try {
+                return Long.parseLong(text, start, pos, 10);
+            } catch (NumberFormatException e) {
+                throw new IOException("id 가 정수가 아닙니다.");
+            }
+        }
+
+        private String readNullableString() throws IOException {
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            return readString();
+        }
+
+        private String readString() throws IOException {
+            expect('"');
+            StringBuilder out = null;
+            int start = pos;
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c == '"') {
+                    String value = out == null ? text.substring(start, pos) : out.append(text, start, pos).toString();
+                    pos++;
+                    return value;
+                }
+                if (c != '\\') {
+                    pos++;
+                    continue;
+                }
+                if (out == null) {
+                    out = new StringBuilder();
+                }
+                out.append(text, start, pos);
+                if (pos + 1 >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos + 1);
+                pos += 2;
+                switch (escaped) {
+                    case '"', '\\', '/' -> out.append(escaped);
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'n' -> out.append('\n');
+                    case 'r' -> out.append('\r');
+                    case 't' -> out.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) {
+                            throw new IOException("잘못된 \\u 이스케이프");
+                        }
+                        try {
+                            out.append((char) Integer.parseInt(text, pos, pos + 4, 16));
+                        } catch (NumberFormatException e) {
+                            throw new IOException("잘못된 \\u 이스케이프");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw new IOException("잘못된 이스케이프: \\" + escaped);
+                }
+                start = pos;
+            }
+            throw new IOException("문자열이 닫히지 않았습니다.");
+        }
+
+        private void skipValue() throws IOException {
+            char c = peek();
+            if (c == '"') {
+                readString();
+                return;
+            }
+            if (c == '{' || c == '[') {
+                throw new IOException("중첩된 값은 지원하지 않습니다.");
+            }
+            while (pos < text.length() && ",} \t\r".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && " \t\r".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+        }
+
+        private char peek() throws IOException {
+            if (pos >= text.length()) {
+                throw new IOException("줄이 중간에 끝났습니다.");
+            }
+            return text.charAt(pos);
+        }
+
+        private boolean tryConsume(char c) {
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) throws IOException {
+            skipWhitespace();
+            if (peek() != c) {
+                throw new IOException("'" + c + "' 가 와야 하는데 '" + text.charAt(pos) + "' 입니다.");
+            }
+            pos++;
+        }
+    }
+}
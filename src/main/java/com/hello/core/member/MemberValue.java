@@ -0,0 +1,27 @@
+package com.hello.core.member;
+
+/*
+ - 불변(immutable) 회원 값
+ - Member 는 setter 가 있어서, 저장소가 저장한 인스턴스를 그대로 돌려주면 다른 스레드가 고치는 중간 상태를 볼 수 있다.
+ - MemberValue 는 필드가 final 이라 한 번 만들어지면 바뀌지 않고, 안전하게 여러 스레드가 공유할 수 있다.
+ - 값을 바꾸려면 withName / withGrade 로 새 값을 만든다.
+ */
+public record MemberValue(long id, String name, Grade grade) {
+
+    public static MemberValue from(Member member) {
+        return new MemberValue(member.getId(), member.getName(), member.getGrade());
+    }
+
+    public MemberValue withName(String name) {
+        return new MemberValue(id, name, grade);
+    }
+
+    public MemberValue withGrade(Grade grade) {
+        return new MemberValue(id, name, grade);
+    }
+
+    // 기존 Member API 를 쓰는 쪽에 넘겨줄 새 인스턴스 (고쳐도 저장된 값에는 영향이 없다)
+    public Member toMember() {
+        return new Member(id, name, grade);
+    }
+}
@@ -2,21 +2,58 @@ package com.hello.core.member;
 
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 @Component
 public class MemoryMemberRepository implements MemberRepository {
 
     private static Map<Long, Member> store = new ConcurrentHashMap<>();
+    // store 가 static 이므로 인덱스도 모든 인스턴스가 같이 쓴다.
+    private static final MemberIndex index = new MemberIndex();
 
     @Override
     public void save(Member member) {
-        store.put(member.getId(), member);
+        // compute 는 같은 키에 대해 원자적으로 실행되므로 인덱스도 저장 순서대로 갱신된다.
+        store.compute(member.getId(), (id, previous) -> {
+            index.update(member);
+            return member;
+        });
     }
 
     @Override
     public Member findById(Long memberId) {
         return store.get(memberId);
     }
+
+    // saveAll 은 재정의하지 않는다. ConcurrentHashMap 에는 여러 키를 한 번에 넣는 경로가 없어서
+    // 회원마다 compute 하는 단건 save 반복(기본 구현)과 비용이 같다.
+
+    // 단건 findById 를 거치지 않고 저장소에 바로 한 번씩만 접근한다.
+    @Override
+    public List<Member> findAllById(List<Long> memberIds) {
+        List<Member> result = new ArrayList<>(memberIds.size());
+        for (Long memberId : memberIds) {
+            result.add(store.get(memberId));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        return index.findByGrade(grade, store::get);
+    }
+
+    @Override
+    public List<Member> findByNamePrefix(String prefix) {
+        return index.findByNamePrefix(prefix, store::get);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        store.values().forEach(action);
+    }
 }
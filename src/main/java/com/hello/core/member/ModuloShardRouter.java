@@ -0,0 +1,23 @@
+package com.hello.core.member;
+
+public class ModuloShardRouter implements ShardRouter {
+
+    private final int shardCount;
+
+    public ModuloShardRouter(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public int shardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int shardFor(long memberId) {
+        return (int) Math.floorMod(memberId, (long) shardCount);
+    }
+}
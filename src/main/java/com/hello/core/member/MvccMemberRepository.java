@@ -0,0 +1,277 @@
+package com.hello.core.member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/*
+ - 다중 버전(MVCC) 회원 저장소
+ - 회원은 불변 MemberValue 로 저장하고, save 할 때마다 덮어쓰지 않고 새 버전을 체인 맨 앞에 붙인다. (copy-on-write)
+ - 커밋 순서
+    - 쓰기는 commitLock 으로 한 줄로 세우고, 버전 번호 = committed + 1 을 붙여 체인에 넣은 다음 committed 를 올린다.
+    - saveAll 은 전체에 같은 버전 번호 하나를 붙이므로, 스냅샷에서는 배치 전체가 보이거나 전혀 안 보인다.
+ - 읽기
+    - findById 등 일반 조회는 락 없이 체인 맨 앞(최신 버전)을 읽는다.
+    - openSnapshot() 은 그 시점의 committed 를 기억하고, 각 회원의 버전 <= 스냅샷 버전 중 가장 새 것만 보여준다.
+      긴 분석 스캔이 스냅샷을 오래 붙잡고 있어도 save 는 막히지 않는다.
+ - 옛 버전 정리
+    - 열려 있는 스냅샷 중 가장 오래된 버전(horizon)보다 옛 버전은 아무도 볼 수 없으므로 save 할 때 체인에서 잘라낸다.
+      열린 스냅샷이 없으면 새로 붙이는 버전이 horizon 이므로 체인은 항상 버전 하나만 남는다.
+    - 가장 오래된 스냅샷이 닫혀서 horizon 이 올라갈 때만 그동안 길어진 체인들을 정리한다. 스냅샷은 꼭 close 해야 한다. (try-with-resources)
+ - 돌려주는 Member 는 매번 새로 만든 사본이다. 고쳐도 저장소에는 반영되지 않는다.
+ */
+public class MvccMemberRepository implements MemberRepository {
+
+    private final Map<Long, Version> store = new ConcurrentHashMap<>();
+    private final MemberIndex index = new MemberIndex();
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private volatile long committed;
+
+    // 열린 스냅샷 버전 -> 그 버전으로 열린 스냅샷 수
+    private final ConcurrentSkipListMap<Long, Integer> openSnapshots = new ConcurrentSkipListMap<>();
+    // 체인에 옛 버전이 남아 있는 회원 id (스냅샷이 닫힐 때 정리 대상)
+    private final Set<Long> chained = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void save(Member member) {
+        save(MemberValue.from(member));
+    }
+
+    public void save(MemberValue value) {
+        commitLock.lock();
+        try {
+            long version = committed + 1;
+            append(value, version, horizon(version));
+            committed = version;
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    @Override
+    public void saveAll(List<Member> members) {
+        commitLock.lock();
+        try {
+            long version = committed + 1;
+            long horizon = horizon(version);
+            for (Member member : members) {
+                append(MemberValue.from(member), version, horizon);
+            }
+            committed = version;
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        MemberValue value = findValue(memberId);
+        return value == null ? null : value.toMember();
+    }
+
+    public MemberValue findValue(long memberId) {
+        Version head = store.get(memberId);
+        return head == null ? null : head.value;
+    }
+
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        return index.findByGrade(grade, this::findById);
+    }
+
+    @Override
+    public List<Member> findByNamePrefix(String prefix) {
+        return index.findByNamePrefix(prefix, this::findById);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        for (Version head : store.values()) {
+            action.accept(head.value.toMember());
+        }
+    }
+
+    /**
+     * 지금까지 커밋된 상태를 고정한 스냅샷을 연다. 다 쓰면 close 해야 옛 버전이 정리된다.
+     */
+    public Snapshot openSnapshot() {
+        // committed 를 읽고 등록하는 사이에 save 가 옛 버전을 잘라내지 않도록 commitLock 을 잠깐 잡는다. (값 두 개만 읽고 쓴다)
+        commitLock.lock();
+        try {
+            long version = committed;
+            openSnapshots.merge(version, 1, Integer::sum);
+            return new Snapshot(version);
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    public long committedVersion() {
+        return committed;
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    // 회원 한 명의 체인에 남아 있는 버전 수 (옛 버전 정리 확인용)
+    int versionCount(long memberId) {
+        int count = 0;
+        for (Version v = store.get(memberId); v != null; v = v.older) {
+            count++;
+        }
+        return count;
+    }
+
+    // commitLock 안에서 호출한다.
+    private void append(MemberValue value, long version, long horizon) {
+        Version head = store.get(value.id());
+        Version next = new Version(value, version, head);
+        prune(next, horizon);
+        store.put(value.id(), next);
+        if (next.older != null) {
+            chained.add(value.id());
+        }
+        index.update(value.toMember());
+    }
+
+    // 열린 스냅샷이 볼 수 있는 가장 오래된 버전, 스냅샷이 없으면 지금 붙이는 버전 (commitLock 안에서 호출한다)
+    private long horizon(long appending) {
+        Map.Entry<Long, Integer> oldest = openSnapshots.firstEntry();
+        return oldest == null ? appending : Math.min(oldest.getKey(), committed);
+    }
+
+    // horizon 이하의 버전은 가장 새 것 하나만 남기고 그 뒤는 잘라낸다.
+    private static void prune(Version chain, long horizon) {
+        for (Version v = chain; v != null; v = v.older) {
+            if (v.version <= horizon) {
+                v.older = null;
+                return;
+            }
+        }
+    }
+
+    // horizon 은 그 버전의 마지막 스냅샷이 닫히고, 그보다 옛 스냅샷이 없을 때만 올라간다. 그 밖의 경우는 정리할 것이 없다.
+    private void closeSnapshot(long version) {
+        Integer left = openSnapshots.computeIfPresent(version, (v, count) -> count == 1 ? null : count - 1);
+        if (left == null) {
+            Map.Entry<Long, Integer> oldest = openSnapshots.firstEntry();
+            if (oldest == null || oldest.getKey() > version) {
+                vacuum();
+            }
+        }
+    }
+
+    /*
+     - 체인이 남은 회원만 골라서 horizon 기준으로 정리한다. commitLock 은 잡지 않는다.
+     - horizon 은 정리 시작 시점에 한 번만 읽는다. 그 뒤에 열리는 스냅샷은 그보다 새 버전이므로, 남겨 둔 버전으로 항상 볼 수 있다.
+     - chained 에서 뺀 뒤 체인을 다시 확인한다. 그 사이에 save 가 새 체인을 붙였으면 다시 넣는다.
+     */
+    private void vacuum() {
+        // committed 를 먼저 읽는다. 그 뒤에 열린 스냅샷은 이 값 이상이고, 그 전에 열린 스냅샷은 firstEntry 에 보인다.
+        long last = committed;
+        Map.Entry<Long, Integer> oldest = openSnapshots.firstEntry();
+        long horizon = oldest == null ? last : Math.min(oldest.getKey(), last);
+        for (Long id : chained) {
+            prune(store.get(id), horizon);
+            if (store.get(id).older == null) {
+                chained.remove(id);
+                if (store.get(id).older != null) {
+                    chained.add(id);
+                }
+            }
+        }
+    }
+
+    private static final class Version {
+        final MemberValue value;
+        final long version;
+        // 더 옛 버전, prune 이 잘라낼 수 있다.
+        volatile Version older;
+
+        Version(MemberValue value, long version, Version older) {
+            this.value = value;
+            this.version = version;
+            this.older = older;
+        }
+    }
+
+    /**
+     * 특정 커밋 시점에 고정된 읽기 전용 뷰
+     * 스냅샷을 연 뒤의 save 는 보이지 않고, 읽는 동안 어떤 락도 잡지 않는다.
+     */
+    public final class Snapshot implements AutoCloseable {
+
+        private final long version;
+        private boolean closed;
+
+        private Snapshot(long version) {
+            this.version = version;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public MemberValue findValue(long memberId) {
+            return visible(store.get(memberId));
+        }
+
+        public Member findById(long memberId) {
+            MemberValue value = findValue(memberId);
+            return value == null ? null : value.toMember();
+        }
+
+        public void forEach(Consumer<? super MemberValue> action) {
+            for (Version head : store.values()) {
+                MemberValue value = visible(head);
+                if (value != null) {
+                    action.accept(value);
+                }
+            }
+        }
+
+        public List<MemberValue> findByGrade(Grade grade) {
+            List<MemberValue> result = new ArrayList<>();
+            forEach(value -> {
+                if (value.grade() == grade) {
+                    result.add(value);
+                }
+            });
+            return result;
+        }
+
+        public int size() {
+            int[] count = new int[1];
+            forEach(value -> count[0]++);
+            return count[0];
+        }
+
+        private MemberValue visible(Version chain) {
+            for (Version v = chain; v != null; v = v.older) {
+                if (v.version <= version) {
+                    return v.value;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                closeSnapshot(version);
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.hello.core.member;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+ - 회원을 N 개의 독립된 샤드(MemberRepository)에 나눠 담는 저장소
+ - MemoryMemberRepository 는 모든 쓰기가 static store 하나에 몰리고, 맵 하나가 한 번에 리사이즈된다.
+ - 여기서는 ShardRouter 가 정한 샤드로만 요청을 보내므로 샤드끼리는 경합하지 않고, 리사이즈도 샤드마다 따로 일어난다.
+ - 샤드는 MemberRepository 인터페이스로만 다루기 때문에, 지금은 같은 JVM 안의 LongKeyMemberRepository 지만
+   나중에 원격 저장소를 감싼 MemberRepository 로 바꿔 끼우면 그대로 여러 JVM 에 분산할 수 있다.
+ - 샤드 자체가 static 저장소를 쓰는 MemoryMemberRepository 이면 모든 샤드가 같은 맵을 쓰게 되므로 샤드로 쓰면 안 된다.
+ */
+public class PartitionedMemberRepository implements MemberRepository {
+
+    private static final Comparator<Member> NAME_ORDER =
+            Comparator.comparing(Member::getName).thenComparing(Member::getId);
+
+    private final MemberRepository[] shards;
+    private final ShardRouter router;
+    private final Counters[] counters;
+
+    public PartitionedMemberRepository(List<? extends MemberRepository> shards, ShardRouter router) {
+        if (shards.size() != router.shardCount()) {
+            throw new IllegalArgumentException(
+                    "shard 수(" + shards.size() + ")와 router.shardCount()(" + router.shardCount() + ")가 다릅니다.");
+        }
+        this.shards = shards.toArray(new MemberRepository[0]);
+        this.router = router;
+        this.counters = new Counters[this.shards.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new Counters();
+        }
+    }
+
+    /**
+     * 샤드마다 shardFactory 로 새 저장소를 만든다. (예: LongKeyMemberRepository::new)
+     */
+    public static PartitionedMemberRepository create(ShardRouter router, Supplier<? extends MemberRepository> shardFactory) {
+        List<MemberRepository> shards = new ArrayList<>(router.shardCount());
+        for (int i = 0; i < router.shardCount(); i++) {
+            shards.add(shardFactory.get());
+        }
+        return new PartitionedMemberRepository(shards, router);
+    }
+
+    @Override
+    public void save(Member member) {
+        int shard = router.shardFor(member.getId());
+        shards[shard].save(member);
+        counters[shard].saves.increment();
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        int shard = router.shardFor(memberId);
+        Member member = shards[shard].findById(memberId);
+        counters[shard].lookups.increment();
+        if (member == null) {
+            counters[shard].misses.increment();
+        }
+        return member;
+    }
+
+    // 샤드별로 묶어서 샤드마다 saveAll 을 한 번씩만 호출한다.
+    @Override
+    public void saveAll(List<Member> members) {
+        List<List<Member>> batches = emptyBatches();
+        for (Member member : members) {
+            batches.get(router.shardFor(member.getId())).add(member);
+        }
+        for (int shard = 0; shard < shards.length; shard++) {
+            List<Member> batch = batches.get(shard);
+            if (!batch.isEmpty()) {
+                shards[shard].saveAll(batch);
+                counters[shard].saves.add(batch.size());
+            }
+        }
+    }
+
+    @Override
+    public List<Member> findAllById(List<Long> memberIds) {
+        List<List<Long>> batches = emptyBatches();
+        List<List<Integer>> positions = emptyBatches();
+        for (int i = 0; i < memberIds.size(); i++) {
+            int shard = router.shardFor(memberIds.get(i));
+            batches.get(shard).add(memberIds.get(i));
+            positions.get(shard).add(i);
+        }
+
+        List<Member> result = new ArrayList<>(memberIds.size());
+        for (int i = 0; i < memberIds.size(); i++) {
+            result.add(null);
+        }
+        for (int shard = 0; shard < shards.length; shard++) {
+            List<Long> batch = batches.get(shard);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            List<Member> found = shards[shard].findAllById(batch);
+            List<Integer> at = positions.get(shard);
+            int misses = 0;
+            for (int j = 0; j < found.size(); j++) {
+                Member member = found.get(j);
+                if (member == null) {
+                    misses++;
+                }
+                result.set(at.get(j), member);
+            }
+            counters[shard].lookups.add(batch.size());
+            counters[shard].misses.add(misses);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Member> findByGrade(Grade grade) {
+        List<Member> result = new ArrayList<>();
+        for (MemberRepository shard : shards) {
+            result.addAll(shard.findByGrade(grade));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Member> findByNamePrefix(String prefix) {
+        List<Member> result = new ArrayList<>();
+        for (MemberRepository shard : shards) {
+            result.addAll(shard.findByNamePrefix(prefix));
+        }
+        // 샤드마다 이름 순으로 정렬되어 있으므로 합친 뒤 한 번 더 정렬한다. (TimSort 는 정렬된 구간을 합치는 데 유리하다)
+        result.sort(NAME_ORDER);
+        return result;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        for (MemberRepository shard : shards) {
+            shard.forEach(action);
+        }
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public MemberRepository shard(int shard) {
+        return shards[shard];
+    }
+
+    public List<ShardStats> stats() {
+        List<ShardStats> stats = new ArrayList<>(shards.length);
+        for (int shard = 0; shard < shards.length; shard++) {
+            Counters c = counters[shard];
+            stats.add(new ShardStats(shard, c.saves.sum(), c.lookups.sum(), c.misses.sum()));
+        }
+        return stats;
+    }
+
+    private <T> List<List<T>> emptyBatches() {
+        List<List<T>> batches = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            batches.add(new ArrayList<>());
+        }
+        return batches;
+    }
+
+    private static final class Counters {
+        final LongAdder saves = new LongAdder();
+        final LongAdder lookups = new LongAdder();
+        final LongAdder misses = new LongAdder();
+    }
+
+    /**
+     * 샤드 하나의 누적 통계
+     */
+    public record ShardStats(int shard, long saves, long lookups, long misses) {
+    }
+}
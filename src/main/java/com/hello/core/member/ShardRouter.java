@@ -0,0 +1,17 @@
+package com.hello.core.member;
+
+/*
+ - 회원 id 를 어느 샤드에 둘지 정하는 전략
+ - PartitionedMemberRepository 는 이 인터페이스에만 의존하므로 라우팅 방식을 바꿔 끼울 수 있다. (DIP)
+    - ModuloShardRouter: id 나머지 연산, 가장 단순하고 빠르지만 샤드 수가 바뀌면 거의 모든 회원의 위치가 바뀐다.
+    - ConsistentHashShardRouter: 해시 링, 샤드 수가 바뀌어도 일부 회원만 옮겨진다.
+ */
+public interface ShardRouter {
+
+    int shardCount();
+
+    /**
+     * @return 0 이상 shardCount() 미만의 샤드 번호
+     */
+    int shardFor(long memberId);
+}
@@ -0,0 +1,30 @@
+package com.hello.core.order;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/*
+ - OrderService 의 비동기 버전
+ - 주문 생성은 그대로 OrderService 에 맡기고, OrderExecutor 의 가상 스레드에서 실행한 결과를 CompletableFuture 로 돌려준다.
+ - 호출한 스레드는 회원 조회를 기다리지 않고 바로 돌아간다.
+ - OrderService 빈이 여러 개이면(AppConfig + 컴포넌트 스캔) 파라미터 이름 orderService 로 AppConfig 의 빈이 선택된다.
+ */
+@Component
+public class AsyncOrderService {
+
+    private final OrderService orderService;
+    private final OrderExecutor orderExecutor;
+
+    public AsyncOrderService(OrderService orderService, OrderExecutor orderExecutor) {
+        this.orderService = orderService;
+        this.orderExecutor = orderExecutor;
+    }
+
+    /**
+     * 동시 진행 한도를 넘으면 RejectedExecutionException 으로 실패한 future 를 돌려준다.
+     */
+    public CompletableFuture<Order> createOrderAsync(long memberId, String itemName, int itemPrice) {
+        return orderExecutor.submit(() -> orderService.createOrder(memberId, itemName, itemPrice));
+    }
+}
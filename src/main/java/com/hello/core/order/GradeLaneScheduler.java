@@ -0,0 +1,352 @@
+package com.hello.core.order;
+
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+import com.hello.core.member.MemberRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ - 회원 등급별 대기열(lane)을 따로 두고 가중치대로 나눠 처리하는 주문 스케줄러
+ - 대기열이 하나면 과부하일 때 VIP 주문도 앞에 쌓인 BASIC 주문이 다 빠질 때까지 기다린다.
+   여기서는 등급마다 lane 을 두고, 작업 스레드가 lane 을 돌아가며 weight 건까지 꺼낸다. (deficit round robin, 주문 한 건 = 비용 1)
+   VIP weight 가 8, BASIC 이 1 이면 둘 다 밀려 있을 때 처리량의 8/9 를 VIP 가 쓰므로, BASIC 이 아무리 몰려도 VIP 대기 시간은 거의 그대로다.
+ - lane 마다 지연 목표(latencyTarget)가 있다. 목표보다 오래 기다린 주문은 처리하지 않고 RejectedExecutionException 으로 실패시킨다.
+   (클라이언트가 이미 타임아웃 났을 주문에 처리량을 쓰지 않고, 밀린 lane 이 스스로 줄어든다)
+ - lane 이 가득 차면(capacity) 새 주문을 바로 거절한다.
+ - 꺼낸 주문은 createOrders 로 묶어서 처리한다. 한 묶음은 모두 같은 등급이다.
+   묶음 안에 없는 회원의 주문이 있으면 한 건씩 다시 처리하고, 그 밖의 실패(저장 실패 등)는 묶음의 주문을 모두 실패시킨다.
+ - 회원 등급은 넣을 때 memberRepository 로 찾는다. 없는 회원은 바로 실패, 등급이 없는 회원은 가장 낮은 lane 으로 보낸다.
+ - stats() 로 lane 별 깊이, 대기 시간, 지연 목표 초과 건수를 볼 수 있다.
+ - order.lanes.enabled=true 일 때만 빈으로 등록된다.
+ */
+@Component
+@ConditionalOnProperty(name = "order.lanes.enabled", havingValue = "true")
+public class GradeLaneScheduler implements AutoCloseable {
+
+    private static final long POLL_MILLIS = 100;
+    // lane 을 한 번 들를 때 치우는 지연 주문 최대 수 (락을 오래 잡지 않게)
+    private static final int MAX_EXPIRED_PER_VISIT = 256;
+
+    private final OrderService orderService;
+    private final MemberRepository memberRepository;
+    private final Lane[] lanes;
+    // 가장 낮은 등급 lane (등급 없는 회원용)
+    private final Lane lowest;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private int cursor;
+    private int queued;
+    private volatile boolean running = true;
+    private final Thread[] workers;
+
+    @Autowired
+    public GradeLaneScheduler(
+            OrderService orderService,
+            MemberRepository memberRepository,
+            @Value("${order.lanes.workers:2}") int workers,
+            @Value("${order.lanes.capacity:10000}") int capacity,
+            @Value("${order.lanes.vip.weight:8}") int vipWeight,
+            @Value("${order.lanes.vip.target-ms:50}") long vipTargetMillis,
+            @Value("${order.lanes.basic.weight:1}") int basicWeight,
+            @Value("${order.lanes.basic.target-ms:500}") long basicTargetMillis
+    ) {
+        this(orderService, memberRepository, workers, Map.of(
+                Grade.VIP, new LaneConfig(vipWeight, capacity, Duration.ofMillis(vipTargetMillis)),
+                Grade.BASIC, new LaneConfig(basicWeight, capacity, Duration.ofMillis(basicTargetMillis))));
+    }
+
+    public GradeLaneScheduler(OrderService orderService, MemberRepository memberRepository, int workers,
+                              Map<Grade, LaneConfig> configs) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        this.orderService = orderService;
+        this.memberRepository = memberRepository;
+        Grade[] grades = Grade.values();
+        this.lanes = new Lane[grades.length];
+        for (Grade grade : grades) {
+            LaneConfig config = configs.get(grade);
+            if (config == null) {
+                throw new IllegalArgumentException("lane 설정이 없는 등급입니다: " + grade);
+            }
+            lanes[grade.ordinal()] = new Lane(grade, config);
+        }
+        this.lowest = lanes[0];
+        this.cursor = lanes.length - 1;
+        this.workers = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            this.workers[i] = Thread.ofPlatform().daemon().name("order-lane-" + i).start(this::drainLoop);
+        }
+    }
+
+    /**
+     * @return 처리가 끝나면 완료되는 future, 받아들이지 못하거나 지연 목표를 넘기면 RejectedExecutionException 으로 실패한 future
+     */
+    public CompletableFuture<Order> submit(long memberId, String itemName, int itemPrice) {
+        Member member = memberRepository.findById(memberId);
+        if (member == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("존재하지 않는 회원입니다. memberId=" + memberId));
+        }
+        Lane lane = member.getGrade() == null ? lowest : lanes[member.getGrade().ordinal()];
+        Ticket ticket = new Ticket(new OrderRequest(memberId, itemName, itemPrice));
+        lane.submitted.increment();
+        lock.lock();
+        try {
+            if (!running) {
+                return lane.reject(ticket, "주문 스케줄러가 닫혔습니다.");
+            }
+            if (lane.queue.size() >= lane.config.capacity()) {
+                return lane.reject(ticket, lane.grade + " lane 이 가득 찼습니다. (" + lane.config.capacity() + ")");
+            }
+            lane.queue.addLast(ticket);
+            queued++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return ticket.future;
+    }
+
+    public Map<Grade, LaneStats> stats() {
+        Map<Grade, LaneStats> result = new EnumMap<>(Grade.class);
+        lock.lock();
+        try {
+            for (Lane lane : lanes) {
+                result.put(lane.grade, lane.stats());
+            }
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    // 새 주문을 막고, 이미 들어온 주문은 작업 스레드가 모두 처리할 때까지 기다린다.
+    @PreDestroy
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void drainLoop() {
+        List<Ticket> batch = new ArrayList<>();
+        List<Ticket> expired = new ArrayList<>();
+        while (true) {
+            Lane lane;
+            try {
+                lane = next(batch, expired);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (lane == null) {
+                return;
+            }
+            process(lane, batch, expired);
+            batch.clear();
+            expired.clear();
+        }
+    }
+
+    /**
+     * deficit round robin 으로 다음 lane 을 골라 batch 에 주문을 꺼내 담는다.
+     * 지연 목표를 넘긴 주문은 expired 에 담는다. (future 는 락 밖에서 완료한다)
+     *
+     * @return 고른 lane, 닫혔고 남은 주문이 없으면 null
+     */
+    private Lane next(List<Ticket> batch, List<Ticket> expired) throws InterruptedException {
+        lock.lock();
+        try {
+            while (queued == 0) {
+                if (!running) {
+                    return null;
+                }
+                notEmpty.await(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            while (true) {
+                Lane lane = lanes[cursor];
+                if (lane.queue.isEmpty()) {
+                    // 빈 lane 은 몫을 모아 두지 않는다.
+                    lane.deficit = 0;
+                    cursor = nextCursor();
+                    continue;
+                }
+                if (lane.deficit == 0) {
+                    lane.deficit = lane.config.weight();
+                }
+                long deadline = System.nanoTime() - lane.config.latencyTarget().toNanos();
+                while (lane.deficit > 0 && !lane.queue.isEmpty() && expired.size() < MAX_EXPIRED_PER_VISIT) {
+                    Ticket ticket = lane.queue.pollFirst();
+                    queued--;
+                    // 지연 목표를 넘긴 주문은 처리하지 않으므로 몫(deficit)을 쓰지 않는다.
+                    if (ticket.enqueuedAt - deadline < 0) {
+                        expired.add(ticket);
+                    } else {
+                        batch.add(ticket);
+                        lane.deficit--;
+                    }
+                }
+                if (lane.deficit == 0 || lane.queue.isEmpty()) {
+                    cursor = nextCursor();
+                }
+                return lane;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 높은 등급부터 돈다. (ordinal 이 큰 쪽이 높은 등급)
+    private int nextCursor() {
+        return cursor == 0 ? lanes.length - 1 : cursor - 1;
+    }
+
+    private void process(Lane lane, List<Ticket> live, List<Ticket> expired) {
+        long now = System.nanoTime();
+        if (!expired.isEmpty()) {
+            // 과부하일 때 수천 건씩 나오므로 예외 하나를 같이 쓴다.
+            RejectedExecutionException overdue = new RejectedExecutionException(
+                    lane.grade + " lane 의 지연 목표(" + lane.config.latencyTarget().toMillis() + "ms)를 넘겼습니다.");
+            for (Ticket ticket : expired) {
+                lane.waitTime.record(now - ticket.enqueuedAt);
+                ticket.future.completeExceptionally(overdue);
+            }
+            lane.expired.add(expired.size());
+        }
+        for (Ticket ticket : live) {
+            lane.waitTime.record(now - ticket.enqueuedAt);
+        }
+        if (live.isEmpty()) {
+            return;
+        }
+        if (live.size() > 1) {
+            List<OrderRequest> requests = new ArrayList<>(live.size());
+            for (Ticket ticket : live) {
+                requests.add(ticket.request);
+            }
+            try {
+                OrderBatch orders = orderService.createOrders(requests);
+                for (int i = 0; i < live.size(); i++) {
+                    live.get(i).future.complete(orders.get(i));
+                }
+                lane.completed.add(live.size());
+                return;
+            } catch (IllegalArgumentException e) {
+                // 없는 회원이 섞인 경우, createOrders 는 주문을 하나도 만들지 않았으므로 한 건씩 다시 처리해도 중복되지 않는다.
+            } catch (RuntimeException e) {
+                // 저장 도중 실패하면 일부는 이미 저장됐을 수 있다. 다시 처리하면 중복 주문이 생기므로 묶음 전체를 실패시킨다.
+                for (Ticket ticket : live) {
+                    ticket.future.completeExceptionally(e);
+                }
+                lane.completed.add(live.size());
+                return;
+            }
+        }
+        for (Ticket ticket : live) {
+            OrderRequest request = ticket.request;
+            try {
+                ticket.future.complete(orderService.createOrder(request.memberId(), request.itemName(), request.itemPrice()));
+            } catch (RuntimeException e) {
+                ticket.future.completeExceptionally(e);
+            }
+            lane.completed.increment();
+        }
+    }
+
+    /**
+     * lane 하나의 설정
+     *
+     * @param weight        한 바퀴에 꺼낼 수 있는 주문 수 (처리량 비율)
+     * @param capacity      대기 중인 주문 최대 수
+     * @param latencyTarget 이보다 오래 기다린 주문은 처리하지 않고 실패시킨다.
+     */
+    public record LaneConfig(int weight, int capacity, Duration latencyTarget) {
+
+        public LaneConfig {
+            if (weight <= 0 || capacity <= 0) {
+                throw new IllegalArgumentException("weight, capacity must be positive: " + weight + ", " + capacity);
+            }
+        }
+    }
+
+    /**
+     * lane 상태
+     *
+     * @param depth   지금 대기 중인 주문 수
+     * @param expired 지연 목표를 넘겨서 실패시킨 주문 수
+     */
+    public record LaneStats(Grade grade, int depth, int weight, long targetMillis, long submitted, long rejected,
+                            long expired, long completed, WaitTimeRecorder.WaitTimeStats waitTime) {
+    }
+
+    private static final class Lane {
+        final Grade grade;
+        final LaneConfig config;
+        // lock 으로 보호한다.
+        final ArrayDeque<Ticket> queue = new ArrayDeque<>();
+        int deficit;
+
+        final LongAdder submitted = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder expired = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final WaitTimeRecorder waitTime = new WaitTimeRecorder();
+
+        Lane(Grade grade, LaneConfig config) {
+            this.grade = grade;
+            this.config = config;
+        }
+
+        CompletableFuture<Order> reject(Ticket ticket, String message) {
+            rejected.increment();
+            ticket.future.completeExceptionally(new RejectedExecutionException(message));
+            return ticket.future;
+        }
+
+        LaneStats stats() {
+            return new LaneStats(grade, queue.size(), config.weight(), config.latencyTarget().toMillis(),
+                    submitted.sum(), rejected.sum(), expired.sum(), completed.sum(), waitTime.snapshot());
+        }
+    }
+
+    private static final class Ticket {
+        final OrderRequest request;
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<Order> future = new CompletableFuture<>();
+
+        Ticket(OrderRequest request) {
+            this.request = request;
+        }
+    }
+}
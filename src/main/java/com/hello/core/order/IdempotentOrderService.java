@@ -0,0 +1,81 @@
+package com.hello.core.order;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/*
+ - 클라이언트 요청 id 로 중복 주문을 막는 주문 서비스
+ - 타임아웃 뒤 재시도처럼 같은 요청 id 가 다시 오면 새로 만들지 않고 처음 만든 Order 를 그대로 돌려준다.
+ - 같은 id 가 동시에 두 번 오면 먼저 자리를 잡은 요청만 주문을 만들고, 나머지는 그 결과를 기다린다.
+ - 주문 생성이 실패하면 기록을 지워서 다음 재시도가 다시 처리되게 한다.
+ - 요청 id 는 order.idempotency.ttl-seconds(기본 600초) 동안 기억한다. 칸 수는 order.idempotency.capacity(기본 65536)
+ - 같은 요청 id 에 다른 주문 내용을 보내도 처음 주문을 돌려준다. (내용 비교는 하지 않는다)
+ */
+@Component
+public class IdempotentOrderService {
+
+    private final OrderService orderService;
+    private final RequestIdCache<CompletableFuture<Order>> requests;
+
+    // 생성자가 둘이므로 스프링이 쓸 생성자를 지정한다.
+    @Autowired
+    public IdempotentOrderService(
+            OrderService orderService,
+            @Value("${order.idempotency.capacity:65536}") int capacity,
+            @Value("${order.idempotency.ttl-seconds:600}") long ttlSeconds
+    ) {
+        this(orderService, new RequestIdCache<>(capacity, Duration.ofSeconds(ttlSeconds)));
+    }
+
+    public IdempotentOrderService(OrderService orderService, RequestIdCache<CompletableFuture<Order>> requests) {
+        this.orderService = orderService;
+        this.requests = requests;
+    }
+
+    public Order createOrder(String requestId, long memberId, String itemName, int itemPrice) {
+        // 재시도가 아닌 대부분의 요청은 락 없는 조회 한 번으로 끝난다.
+        CompletableFuture<Order> existing = requests.get(requestId);
+        CompletableFuture<Order> mine = null;
+        if (existing == null) {
+            mine = new CompletableFuture<>();
+            existing = requests.putIfAbsent(requestId, mine);
+        }
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            Order order = orderService.createOrder(memberId, itemName, itemPrice);
+            mine.complete(order);
+            return order;
+        } catch (Throwable e) {
+            // Error 도 여기서 정리하지 않으면 같은 요청 id 의 재시도가 완료되지 않는 future 를 영원히 기다린다.
+            requests.remove(requestId, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public RequestIdCache.CacheStats stats() {
+        return requests.stats();
+    }
+
+    private static Order await(CompletableFuture<Order> original) {
+        try {
+            return original.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
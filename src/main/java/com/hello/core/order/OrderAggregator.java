@@ -0,0 +1,149 @@
+package com.hello.core.order;
+
+import com.hello.core.member.Grade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ - 회원별, 등급별 주문 누적 합계 (건수, 할인 전 금액, 할인 금액, 할인 후 금액)
+ - 주문을 저장하지 않아도 OrderService 가 주문을 만들 때마다 record 를 불러서 합계를 바로 갱신한다.
+ - 합계는 StripedTotals 에 나눠 더하므로 주문 생성끼리, 주문 생성과 조회가 서로 막지 않는다.
+ - 조회 결과(OrderTotals)는 키 하나 안에서 항상 맞는 값이다. (건수만 늘고 금액은 아직인 상태를 보지 않는다)
+   다만 여러 키를 읽는 gradeTotals() 는 키마다 읽는 시점이 조금씩 다를 수 있다.
+ - 등급이 없는 회원의 주문은 회원별 합계와 total() 에만 들어간다.
+ - 회원별 합계는 최근에 주문한 회원 order.aggregator.max-members(기본 100000)명까지만 들고 있는다.
+    - 넘치면 가장 오래 주문이 없던 회원부터 최대치의 10% 를 한 번에 밀어낸다. (주문마다 정렬하지 않도록 몰아서 한다)
+    - 밀려난 회원의 합계는 버려지고 다음 주문부터 다시 센다. 밀어내는 순간에 더해진 주문도 같이 버려질 수 있다.
+    - 등급별 합계와 total() 은 밀어내기와 상관없이 항상 전체를 센다.
+ */
+@Component
+public class OrderAggregator {
+
+    public static final int DEFAULT_MAX_MEMBERS = 100_000;
+
+    private static final Grade[] GRADES = Grade.values();
+    // 마지막 주문 시각은 이 간격보다 오래됐을 때만 고쳐 쓴다. (같은 회원의 주문이 몰릴 때 매번 같은 캐시 라인에 쓰지 않도록)
+    private static final long TOUCH_INTERVAL_NANOS = 1_000_000;
+
+    private final Map<Long, MemberTotals> byMember = new ConcurrentHashMap<>();
+    private final StripedTotals[] byGrade = new StripedTotals[GRADES.length + 1];
+    private final int maxMembers;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder evictions = new LongAdder();
+
+    public OrderAggregator() {
+        this(DEFAULT_MAX_MEMBERS);
+    }
+
+    @Autowired
+    public OrderAggregator(@Value("${order.aggregator.max-members:100000}") int maxMembers) {
+        if (maxMembers <= 0) {
+            throw new IllegalArgumentException("회원별 합계 최대 회원 수는 0보다 커야 합니다: " + maxMembers);
+        }
+        this.maxMembers = maxMembers;
+        for (int i = 0; i < byGrade.length; i++) {
+            byGrade[i] = new StripedTotals();
+        }
+    }
+
+    public void record(long memberId, Grade grade, int itemPrice, int discountPrice) {
+        long now = System.nanoTime();
+        MemberTotals member = byMember.get(memberId);
+        if (member == null) {
+            member = byMember.computeIfAbsent(memberId, id -> new MemberTotals(now));
+            if (byMember.size() > maxMembers) {
+                evictOldest();
+            }
+        } else if (now - member.lastOrder > TOUCH_INTERVAL_NANOS) {
+            member.lastOrder = now;
+        }
+        member.totals.add(itemPrice, discountPrice);
+        byGrade[grade == null ? GRADES.length : grade.ordinal()].add(itemPrice, discountPrice);
+    }
+
+    public OrderTotals totalsOf(long memberId) {
+        MemberTotals member = byMember.get(memberId);
+        return member == null ? OrderTotals.EMPTY : member.totals.snapshot();
+    }
+
+    public OrderTotals totalsOf(Grade grade) {
+        return byGrade[grade.ordinal()].snapshot();
+    }
+
+    public Map<Grade, OrderTotals> gradeTotals() {
+        Map<Grade, OrderTotals> result = new EnumMap<>(Grade.class);
+        for (Grade grade : GRADES) {
+            result.put(grade, totalsOf(grade));
+        }
+        return result;
+    }
+
+    // 등급이 없는 회원의 주문까지 합친 전체 합계
+    public OrderTotals total() {
+        OrderTotals total = OrderTotals.EMPTY;
+        for (StripedTotals totals : byGrade) {
+            total = total.plus(totals.snapshot());
+        }
+        return total;
+    }
+
+    // 지금 회원별 합계를 들고 있는 회원 수
+    public int trackedMembers() {
+        return byMember.size();
+    }
+
+    // 지금까지 밀려난 회원 수
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    // 다른 스레드가 이미 밀어내는 중이면 그쪽에 맡긴다.
+    private void evictOldest() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int excess = byMember.size() - (maxMembers - maxMembers / 10);
+            if (excess <= 0) {
+                return;
+            }
+            long[] lastOrders = new long[byMember.size()];
+            int n = 0;
+            for (MemberTotals member : byMember.values()) {
+                if (n == lastOrders.length) {
+                    break;
+                }
+                lastOrders[n++] = member.lastOrder;
+            }
+            Arrays.sort(lastOrders, 0, n);
+            long cutoff = lastOrders[Math.min(excess, n) - 1];
+            byMember.entrySet().removeIf(entry -> {
+                if (entry.getValue().lastOrder - cutoff <= 0) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            });
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class MemberTotals {
+        final StripedTotals totals = new StripedTotals();
+        // System.nanoTime() 기준 마지막 주문 시각, 정확한 순서가 필요하지 않으므로 덮어쓰기만 한다.
+        volatile long lastOrder;
+
+        MemberTotals(long lastOrder) {
+            this.lastOrder = lastOrder;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.hello.core.order;
+
+/*
+ - 일괄 주문 결과
+ - 주문마다 Order 객체를 만들지 않고 필드별 배열(memberIds, itemNames, itemPrices, discountPrices)에 담는다.
+   수십만 건을 만들어도 배열 4개뿐이라 할당과 GC 부담이 작다.
+ - i 번째 결과는 요청 목록의 i 번째 주문이다.
+ - Order 객체가 필요하면 get(i) 로 그때 만든다.
+ */
+public class OrderBatch {
+
+    private final long[] memberIds;
+    private final String[] itemNames;
+    private final int[] itemPrices;
+    private final int[] discountPrices;
+
+    OrderBatch(long[] memberIds, String[] itemNames, int[] itemPrices, int[] discountPrices) {
+        this.memberIds = memberIds;
+        this.itemNames = itemNames;
+        this.itemPrices = itemPrices;
+        this.discountPrices = discountPrices;
+    }
+
+    public int size() {
+        return memberIds.length;
+    }
+
+    public long getMemberId(int index) {
+        return memberIds[index];
+    }
+
+    public String getItemName(int index) {
+        return itemNames[index];
+    }
+
+    public int getItemPrice(int index) {
+        return itemPrices[index];
+    }
+
+    public int getDiscountPrice(int index) {
+        return discountPrices[index];
+    }
+
+    public int calculatePrice(int index) {
+        return itemPrices[index] - discountPrices[index];
+    }
+
+    // 전체 결제 금액, 건수가 많으면 int 를 넘을 수 있어 long 으로 더한다.
+    public long totalPrice() {
+        long total = 0;
+        for (int i = 0; i < itemPrices.length; i++) {
+            total += itemPrices[i] - discountPrices[i];
+        }
+        return total;
+    }
+
+    public Order get(int index) {
+        return new Order(memberIds[index], itemNames[index], itemPrices[index], discountPrices[index]);
+    }
+}
@@ -0,0 +1,90 @@
+package com.hello.core.order;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+ - 주문 처리를 가상 스레드(virtual thread)에서 돌리는 실행기 (스프링 빈)
+ - 작업마다 가상 스레드를 하나씩 만든다. 회원 조회가 I/O 를 기다리는 동안 플랫폼 스레드를 붙잡지 않으므로
+   노드 하나에서 수만 건의 주문을 동시에 진행할 수 있다.
+ - 동시에 진행 중인 작업 수는 order.async.max-in-flight(기본 10000) 으로 제한한다. (Semaphore)
+    - 자리가 없으면 제출하는 쪽이 order.async.acquire-timeout-ms(기본 100ms) 까지 기다리고,
+      그래도 없으면 RejectedExecutionException 으로 실패한 future 를 돌려준다. (DB 커넥션 같은 하위 자원이 무한정 밀리지 않게 한다)
+ - 컨테이너가 내려갈 때(@PreDestroy) 새 작업을 막고, 진행 중인 작업을 order.async.shutdown-timeout-ms(기본 30초)까지 기다린다.
+ */
+@Component
+public class OrderExecutor {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long acquireTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+
+    public OrderExecutor(
+            @Value("${order.async.max-in-flight:10000}") int maxInFlight,
+            @Value("${order.async.acquire-timeout-ms:100}") long acquireTimeoutMillis,
+            @Value("${order.async.shutdown-timeout-ms:30000}") long shutdownTimeoutMillis
+    ) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.permits = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("진행 중인 주문이 최대치(" + maxInFlight + ")입니다."));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            // 돌려준 future 는 cancel 하면 바로 완료되므로, 자리는 작업이 실제로 끝날 때 작업 안에서 반납한다.
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.get();
+                } finally {
+                    permits.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            // 종료 중이라 실행기가 작업을 받지 않는 경우
+            permits.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // 지금 진행 중인 작업 수
+    public int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
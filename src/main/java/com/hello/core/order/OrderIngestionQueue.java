@@ -0,0 +1,248 @@
+package com.hello.core.order;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ - OrderService 앞에 두는 주문 접수 대기열
+ - 트래픽이 몰릴 때 호출하는 쪽이 createOrder 를 바로 부르면 처리 못 한 요청이 스레드마다 쌓여 지연이 끝없이 늘어난다.
+   여기서는 크기가 정해진 대기열(order.ingestion.capacity, 기본 10000)에 넣고,
+   넘치면 OverflowPolicy(order.ingestion.overflow-policy, 기본 REJECT) 대로 처리해서 과부하일 때도 동작이 예측 가능하다.
+ - 작업 스레드(order.ingestion.workers, 기본 2)가 대기열에서 최대 batch-size(기본 256)건씩 꺼내서
+   createOrders 로 한 번에 처리한다. (회원 조회가 한 번으로 줄어든다)
+   묶음 안에 없는 회원의 주문이 있으면 그 묶음만 한 건씩 다시 처리해서 다른 주문은 정상 처리되게 한다.
+   그 밖의 실패(저장 실패 등)는 다시 처리하지 않고 묶음의 주문을 모두 실패시킨다.
+ - stats() 로 대기열 깊이, 거절/밀려난 건수, 대기 시간(넣은 뒤 작업 스레드가 꺼낼 때까지)을 볼 수 있다.
+ - order.ingestion.enabled=true 일 때만 빈으로 등록된다.
+ */
+@Component
+@ConditionalOnProperty(name = "order.ingestion.enabled", havingValue = "true")
+public class OrderIngestionQueue implements AutoCloseable {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final OrderService orderService;
+    private final BlockingQueue<Ticket> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutMillis;
+    private final Thread[] workers;
+    private volatile boolean running = true;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final WaitTimeRecorder waitTime = new WaitTimeRecorder();
+
+    public OrderIngestionQueue(
+            OrderService orderService,
+            @Value("${order.ingestion.capacity:10000}") int capacity,
+            @Value("${order.ingestion.workers:2}") int workers,
+            @Value("${order.ingestion.batch-size:256}") int batchSize,
+            @Value("${order.ingestion.overflow-policy:REJECT}") OverflowPolicy overflowPolicy,
+            @Value("${order.ingestion.offer-timeout-ms:50}") long offerTimeoutMillis
+    ) {
+        if (capacity <= 0 || workers <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException(
+                    "capacity, workers, batchSize must be positive: " + capacity + ", " + workers + ", " + batchSize);
+        }
+        this.orderService = orderService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.workers = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            this.workers[i] = Thread.ofPlatform().daemon().name("order-ingestion-" + i).start(this::drainLoop);
+        }
+    }
+
+    /**
+     * @return 처리가 끝나면 완료되는 future, 받아들이지 못하면 RejectedExecutionException 으로 실패한 future
+     */
+    public CompletableFuture<Order> submit(long memberId, String itemName, int itemPrice) {
+        Ticket ticket = new Ticket(new OrderRequest(memberId, itemName, itemPrice));
+        if (!running) {
+            return reject(ticket, "주문 대기열이 닫혔습니다.");
+        }
+        submitted.increment();
+        if (queue.offer(ticket)) {
+            return enqueued(ticket);
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    if (queue.offer(ticket, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        return enqueued(ticket);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return reject(ticket, "주문 대기열이 가득 찼습니다. (" + capacity + ")");
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(ticket)) {
+                    Ticket oldest = queue.poll();
+                    if (oldest != null) {
+                        dropped.increment();
+                        oldest.future.completeExceptionally(
+                                new RejectedExecutionException("새 주문에 밀려 대기열에서 빠졌습니다."));
+                    }
+                }
+                return enqueued(ticket);
+            }
+            case CALLER_RUNS -> {
+                waitTime.record(0);
+                complete(ticket);
+                return ticket.future;
+            }
+            default -> {
+                return reject(ticket, "주문 대기열이 가득 찼습니다. (" + capacity + ")");
+            }
+        }
+    }
+
+    /*
+     - running 을 확인한 뒤 offer 하기 전에 close 가 끝까지 돌면, 작업 스레드도 마지막 비우기도 이미 지나가서 아무도 이 주문을 꺼내지 않는다.
+     - 넣은 뒤에 다시 확인해서 닫혔으면 대기열에서 직접 빼고 거절한다.
+       remove 가 실패했다면 작업 스레드나 close 가 이미 꺼내 간 것이므로 그쪽에서 완료시킨다.
+     */
+    private CompletableFuture<Order> enqueued(Ticket ticket) {
+        if (!running && queue.remove(ticket)) {
+            return reject(ticket, "주문 대기열이 닫혔습니다.");
+        }
+        return ticket.future;
+    }
+
+    public IngestionStats stats() {
+        return new IngestionStats(queue.size(), capacity, submitted.sum(), rejected.sum(), dropped.sum(),
+                completed.sum(), waitTime.snapshot());
+    }
+
+    // 새 주문을 막고, 이미 들어온 주문은 작업 스레드가 모두 처리할 때까지 기다린다.
+    @PreDestroy
+    @Override
+    public void close() {
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        // 닫는 도중에 들어온 주문은 처리할 스레드가 없으므로 실패시킨다.
+        Ticket left;
+        while ((left = queue.poll()) != null) {
+            reject(left, "주문 대기열이 닫혔습니다.");
+        }
+    }
+
+    private void drainLoop() {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Ticket first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<Ticket> batch) {
+        long now = System.nanoTime();
+        for (Ticket ticket : batch) {
+            waitTime.record(now - ticket.enqueuedAt);
+        }
+        if (batch.size() == 1) {
+            complete(batch.get(0));
+            return;
+        }
+        List<OrderRequest> requests = new ArrayList<>(batch.size());
+        for (Ticket ticket : batch) {
+            requests.add(ticket.request);
+        }
+        OrderBatch orders;
+        try {
+            orders = orderService.createOrders(requests);
+        } catch (IllegalArgumentException e) {
+            // 없는 회원이 섞인 경우, createOrders 는 주문을 하나도 만들지 않았으므로 한 건씩 다시 처리해도 중복되지 않는다.
+            for (Ticket ticket : batch) {
+                complete(ticket);
+            }
+            return;
+        } catch (RuntimeException e) {
+            // 저장 도중 실패하면 일부는 이미 저장됐을 수 있다. 다시 처리하면 중복 주문이 생기므로 묶음 전체를 실패시킨다.
+            for (Ticket ticket : batch) {
+                ticket.future.completeExceptionally(e);
+            }
+            completed.add(batch.size());
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future.complete(orders.get(i));
+        }
+        completed.add(batch.size());
+    }
+
+    private void complete(Ticket ticket) {
+        OrderRequest request = ticket.request;
+        try {
+            ticket.future.complete(orderService.createOrder(request.memberId(), request.itemName(), request.itemPrice()));
+        } catch (RuntimeException e) {
+            ticket.future.completeExceptionally(e);
+        }
+        completed.increment();
+    }
+
+    private CompletableFuture<Order> reject(Ticket ticket, String message) {
+        rejected.increment();
+        ticket.future.completeExceptionally(new RejectedExecutionException(message));
+        return ticket.future;
+    }
+
+    private static final class Ticket {
+        final OrderRequest request;
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<Order> future = new CompletableFuture<>();
+
+        Ticket(OrderRequest request) {
+            this.request = request;
+        }
+    }
+
+    /**
+     * 대기열 상태
+     *
+     * @param depth     지금 대기 중인 주문 수
+     * @param dropped   DROP_OLDEST 로 밀려난 주문 수
+     * @param completed 처리가 끝난 주문 수 (실패 포함)
+     */
+    public record IngestionStats(int depth, int capacity, long submitted, long rejected, long dropped,
+                                 long completed, WaitTimeRecorder.WaitTimeStats waitTime) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.hello.core.order;
+
+import com.hello.core.member.Member;
+import com.hello.core.member.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ - 일괄 주문에 나오는 회원을 한 번에 조회해서, 주문 번호로 회원을 바로 꺼낼 수 있게 해두는 표
+ - 회원 id 중복 제거는 long 오픈 어드레싱 표로 한다. (주문 수만큼 Long 박싱이나 HashMap 노드를 만들지 않는다)
+ - 저장소는 서로 다른 id 목록으로 findAllById 를 한 번만 호출한다.
+ */
+final class OrderMembers {
+
+    private static final int INITIAL_TABLE_SIZE = 256;
+
+    private final Member[] byOrder;
+
+    private OrderMembers(Member[] byOrder) {
+        this.byOrder = byOrder;
+    }
+
+    /**
+     * @throws IllegalArgumentException 없는 회원이 있는 경우
+     */
+    static OrderMembers load(MemberRepository memberRepository, long[] memberIds) {
+        int size = memberIds.length;
+        // 서로 다른 id 수에 맞춰 키운다. (주문 수로 잡으면 회원이 적을 때 표가 캐시에 안 들어간다)
+        long[] keys = new long[INITIAL_TABLE_SIZE];
+        // 서로 다른 id 번호 + 1, 0 이면 빈 칸
+        int[] slots = new int[INITIAL_TABLE_SIZE];
+        int[] distinctOf = new int[size];
+        List<Long> distinct = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            long memberId = memberIds[i];
+            int mask = keys.length - 1;
+            int slot = mix(memberId) & mask;
+            while (slots[slot] != 0 && keys[slot] != memberId) {
+                slot = (slot + 1) & mask;
+            }
+            if (slots[slot] != 0) {
+                distinctOf[i] = slots[slot] - 1;
+                continue;
+            }
+            keys[slot] = memberId;
+            distinct.add(memberId);
+            slots[slot] = distinct.size();
+            distinctOf[i] = distinct.size() - 1;
+            if (distinct.size() * 2 > keys.length) {
+                long[] oldKeys = keys;
+                int[] oldSlots = slots;
+                keys = new long[oldKeys.length << 1];
+                slots = new int[oldKeys.length << 1];
+                rehash(oldKeys, oldSlots, keys, slots);
+            }
+        }
+
+        List<Member> found = memberRepository.findAllById(distinct);
+        Member[] members = new Member[distinct.size()];
+        for (int j = 0; j < members.length; j++) {
+            members[j] = found.get(j);
+            if (members[j] == null) {
+                throw new IllegalArgumentException("존재하지 않는 회원입니다. memberId=" + distinct.get(j));
+            }
+        }
+        Member[] byOrder = new Member[size];
+        for (int i = 0; i < size; i++) {
+            byOrder[i] = members[distinctOf[i]];
+        }
+        return new OrderMembers(byOrder);
+    }
+
+    Member get(int order) {
+        return byOrder[order];
+    }
+
+    private static void rehash(long[] oldKeys, int[] oldSlots, long[] keys, int[] slots) {
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldSlots[i] != 0) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                slots[slot] = oldSlots[i];
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
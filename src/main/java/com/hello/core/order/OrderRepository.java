@@ -0,0 +1,20 @@
+package com.hello.core.order;
+
+import java.util.List;
+
+public interface OrderRepository {
+
+    void save(Order order);
+
+    // 일괄 주문 결과를 한 번에 저장한다. 구현체가 더 효율적인 방법이 있으면 재정의한다.
+    default void saveAll(OrderBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            save(batch.get(i));
+        }
+    }
+
+    /**
+     * memberId 회원이 [fromMillis, toMillis) 사이에 한 주문을 저장된 순서대로 돌려준다.
+     */
+    List<Order> findByMemberId(long memberId, long fromMillis, long toMillis);
+}
@@ -0,0 +1,7 @@
+package com.hello.core.order;
+
+/**
+ * 일괄 주문(OrderService.createOrders)의 주문 한 건
+ */
+public record OrderRequest(long memberId, String itemName, int itemPrice) {
+}
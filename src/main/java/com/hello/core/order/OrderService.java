@@ -1,5 +1,27 @@
 package com.hello.core.order;
 
+import java.util.List;
+
 public interface OrderService {
     Order createOrder(Long memberId, String itemName, int itemPrice);
+
+    // 회원 조회 시 박싱이 일어나지 않도록 long 으로 받는 오버로드
+    Order createOrder(long memberId, String itemName, int itemPrice);
+
+    /**
+     * 여러 주문을 한 번에 만든다. 필요한 회원은 한 번에 묶어서 조회한다.
+     * 결과의 i 번째는 requests 의 i 번째 주문이다.
+     *
+     * @throws IllegalArgumentException 없는 회원의 주문이 섞여 있는 경우 (주문은 하나도 만들어지지 않는다)
+     */
+    OrderBatch createOrders(List<OrderRequest> requests);
+
+    /**
+     * 주문을 만들지 않고 가격만 계산해서 호출한 쪽의 버퍼 out 에 쓴다. (객체를 새로 만들지 않는다)
+     * 주문 저장소가 있어도 저장하지 않는다.
+     *
+     * @return out
+     * @throws IllegalArgumentException 없는 회원인 경우
+     */
+    PriceQuote quote(long memberId, int itemPrice, PriceQuote out);
 }
@@ -1,25 +1,47 @@
 package com.hello.core.order;
 
+import com.hello.core.discount.DiscountChain;
 import com.hello.core.discount.DiscountPolicy;
+import com.hello.core.member.Grade;
 import com.hello.core.member.Member;
 import com.hello.core.member.MemberRepository;
 import lombok.Getter;
 //import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-//import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Objects;
+
 @Component
 // final 붙는걸 확인해서 직접 생성자를 만들어준다.
 //@RequiredArgsConstructor
 @Getter
 public class OrderServiceImpl implements OrderService {
 
+    // 일괄 주문에서 등급이 없는 회원을 모으는 칸 (등급 칸들 바로 뒤)
+    private static final int NO_GRADE_SLOT = Grade.values().length;
+
     // 객체의 final를 주입해서 생성자에서 무조건 생성하도록 명시할 수 있다.
     private final MemberRepository memberRepository;
     private final DiscountPolicy discountPolicy;
+    // 주문 저장소는 선택 사항이다. 빈이 없으면 주문을 만들기만 하고 저장하지 않는다.
+    private OrderRepository orderRepository;
+    // 주문 합계 집계도 선택 사항이다.
+    private OrderAggregator orderAggregator;
 
+    // discountChain 빈은 discount.chain.enabled=true 일 때만 있다. (DiscountChainConfig) 있으면 기본 할인 정책 대신 쓴다.
     @Autowired
+    public OrderServiceImpl(
+            MemberRepository memberRepository,
+            DiscountPolicy discountPolicy,
+            @Qualifier("discountChain") ObjectProvider<DiscountChain> discountChain
+    ) {
+        this(memberRepository, Objects.requireNonNullElse(discountChain.getIfAvailable(), discountPolicy));
+    }
+
     public OrderServiceImpl(
             MemberRepository memberRepository,
             DiscountPolicy discountPolicy
@@ -28,12 +50,108 @@ public class OrderServiceImpl implements OrderService {
         this.discountPolicy = discountPolicy;
     }
 
+    // 스프링 빈으로 등록된 OrderRepository 가 없으면 호출되지 않는다.
+    @Autowired(required = false)
+    public void setOrderRepository(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    @Autowired(required = false)
+    public void setOrderAggregator(OrderAggregator orderAggregator) {
+        this.orderAggregator = orderAggregator;
+    }
+
     @Override
     public Order createOrder(Long memberId, String itemName, int itemPrice) {
         Member member = memberRepository.findById(memberId);
         int discountPrice = discountPolicy.discount(member, itemPrice);
 
-        return new Order(memberId, itemName, itemPrice, discountPrice);
+        return store(member, new Order(memberId, itemName, itemPrice, discountPrice));
+    }
+
+    @Override
+    public Order createOrder(long memberId, String itemName, int itemPrice) {
+        Member member = memberRepository.findById(memberId);
+        int discountPrice = discountPolicy.discount(member, itemPrice);
+
+        return store(member, new Order(memberId, itemName, itemPrice, discountPrice));
+    }
+
+    // 회원 조회는 long 오버로드, 결과는 out 에 덮어쓴다. 저장소가 박싱 없이 long 으로 찾으면 주문 하나에 할당이 없다.
+    @Override
+    public PriceQuote quote(long memberId, int itemPrice, PriceQuote out) {
+        Member member = memberRepository.findById(memberId);
+        if (member == null) {
+            throw new IllegalArgumentException("존재하지 않는 회원입니다. memberId=" + memberId);
+        }
+        out.set(memberId, itemPrice, discountPolicy.discount(member, itemPrice));
+        return out;
+    }
+
+    private Order store(Member member, Order order) {
+        // 저장이 실패한 주문은 집계하지 않도록 저장한 뒤에 기록한다.
+        if (orderRepository != null) {
+            orderRepository.save(order);
+        }
+        if (orderAggregator != null) {
+            orderAggregator.record(order.getMemberId(), member == null ? null : member.getGrade(),
+                    order.getItemPrice(), order.getDiscountPrice());
+        }
+        return order;
+    }
+
+    /*
+     일괄 주문
+     - 서로 다른 회원 id 만 모아서 findAllById 로 한 번에 조회한다. (주문 수만큼 findById 를 부르지 않는다)
+     - 주문을 회원 등급별로 모아서 할인을 계산한다. 같은 등급끼리 연달아 계산하므로 할인 정책 안의 등급 분기가 매번 같은 쪽으로 간다.
+     - 결과는 Order 객체 대신 OrderBatch 의 배열에 바로 쓴다.
+     */
+    @Override
+    public OrderBatch createOrders(List<OrderRequest> requests) {
+        int size = requests.size();
+        long[] memberIds = new long[size];
+        String[] itemNames = new String[size];
+        int[] itemPrices = new int[size];
+        for (int i = 0; i < size; i++) {
+            OrderRequest request = requests.get(i);
+            memberIds[i] = request.memberId();
+            itemNames[i] = request.itemName();
+            itemPrices[i] = request.itemPrice();
+        }
+        OrderMembers members = OrderMembers.load(memberRepository, memberIds);
+
+        // 등급별로 주문 번호를 모은다. (counting sort)
+        int[] counts = new int[NO_GRADE_SLOT + 3];
+        for (int i = 0; i < size; i++) {
+            counts[gradeSlot(members.get(i)) + 2]++;
+        }
+        for (int slot = 1; slot < counts.length; slot++) {
+            counts[slot] += counts[slot - 1];
+        }
+        int[] byGrade = new int[size];
+        for (int i = 0; i < size; i++) {
+            byGrade[counts[gradeSlot(members.get(i)) + 1]++] = i;
+        }
+
+        int[] discountPrices = new int[size];
+        for (int i : byGrade) {
+            discountPrices[i] = discountPolicy.discount(members.get(i), itemPrices[i]);
+        }
+        OrderBatch batch = new OrderBatch(memberIds, itemNames, itemPrices, discountPrices);
+        if (orderRepository != null) {
+            orderRepository.saveAll(batch);
+        }
+        if (orderAggregator != null) {
+            for (int i = 0; i < size; i++) {
+                orderAggregator.record(memberIds[i], members.get(i).getGrade(), itemPrices[i], discountPrices[i]);
+            }
+        }
+        return batch;
+    }
+
+    private static int gradeSlot(Member member) {
+        Grade grade = member.getGrade();
+        return grade == null ? NO_GRADE_SLOT : grade.ordinal();
     }
 
     /*
@@ -0,0 +1,23 @@
+package com.hello.core.order;
+
+/**
+ * 주문 누적 합계 스냅샷
+ *
+ * @param gross    할인 전 금액 합 (itemPrice)
+ * @param discount 할인 금액 합
+ */
+public record OrderTotals(long count, long gross, long discount) {
+
+    public static final OrderTotals EMPTY = new OrderTotals(0, 0, 0);
+
+    /**
+     * 할인 후 금액 합 (calculatePrice 의 합)
+     */
+    public long net() {
+        return gross - discount;
+    }
+
+    public OrderTotals plus(OrderTotals other) {
+        return new OrderTotals(count + other.count, gross + other.gross, discount + other.discount);
+    }
+}
@@ -0,0 +1,16 @@
+package com.hello.core.order;
+
+/**
+ * 주문 대기열이 가득 찼을 때 새 주문을 어떻게 할지
+ */
+public enum OverflowPolicy {
+
+    // 바로 RejectedExecutionException 으로 실패시킨다. (가장 예측 가능한 부하 차단)
+    REJECT,
+    // 자리가 날 때까지 제출하는 쪽을 잠깐 기다리게 한다. (offer timeout 이 지나면 REJECT 와 같다)
+    BLOCK,
+    // 가장 오래 기다린 주문을 실패시키고 새 주문을 넣는다. (오래된 요청은 이미 클라이언트가 포기했을 가능성이 크다)
+    DROP_OLDEST,
+    // 대기열을 거치지 않고 제출한 스레드에서 바로 처리한다. (제출하는 쪽이 느려지므로 자연스럽게 유입이 줄어든다)
+    CALLER_RUNS
+}
@@ -0,0 +1,45 @@
+package com.hello.core.order;
+
+/*
+ - 주문 가격 계산 결과를 담는 버퍼 (OrderService.quote)
+ - 호출하는 쪽이 하나 만들어서 계속 재사용한다. quote 가 값을 덮어쓰므로 주문마다 객체를 만들지 않는다.
+ - 스레드 간에 공유하면 안 된다. (스레드마다 하나씩 두거나 ThreadLocal 로 둔다)
+ */
+public final class PriceQuote {
+
+    private long memberId;
+    private int itemPrice;
+    private int discountPrice;
+
+    void set(long memberId, int itemPrice, int discountPrice) {
+        this.memberId = memberId;
+        this.itemPrice = itemPrice;
+        this.discountPrice = discountPrice;
+    }
+
+    public long getMemberId() {
+        return memberId;
+    }
+
+    public int getItemPrice() {
+        return itemPrice;
+    }
+
+    public int getDiscountPrice() {
+        return discountPrice;
+    }
+
+    // Order.calculatePrice() 와 같은 값
+    public int calculatePrice() {
+        return itemPrice - discountPrice;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceQuote{" +
+                "memberId=" + memberId +
+                ", itemPrice=" + itemPrice +
+                ", discountPrice=" + discountPrice +
+                '}';
+    }
+}
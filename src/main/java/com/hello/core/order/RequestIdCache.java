@@ -0,0 +1,166 @@
+package com.hello.core.order;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ - 요청 id(문자열) -> 값 을 일정 시간(ttl) 동안 기억하는 고정 크기 캐시 (중복 요청 걸러내기용)
+ - 크기
+    - 칸 수(capacity)가 고정이라 아무리 요청이 많아도 메모리가 늘지 않는다. 칸 하나 = Entry 하나 (해시, 키, 값, 만료 시각)
+    - 칸은 WAYS 개씩 묶음(bucket)으로 나뉘고, 요청 id 는 해시로 정해진 묶음 안에만 들어간다.
+    - 묶음이 살아있는 항목으로 가득 차면 가장 먼저 만료될 항목을 밀어낸다. (evictions 로 센다)
+      밀려난 요청 id 는 ttl 전이라도 다시 처리될 수 있으므로, capacity 는 ttl 동안 들어오는 요청 수보다 넉넉하게 잡는다.
+ - 조회(get)는 락 없이 묶음의 칸 몇 개만 읽는다. 해시(int)를 먼저 비교해서 equals 는 거의 한 번만 부른다.
+ - 넣기(putIfAbsent)는 묶음별 락(stripe)을 잡아서 같은 id 가 두 번 들어가지 않게 한다.
+ */
+public class RequestIdCache<V> {
+
+    private static final int WAYS = 4;
+    private static final int LOCK_STRIPES = 64;
+
+    private final AtomicReferenceArray<Entry<V>> slots;
+    private final int bucketMask;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RequestIdCache(int capacity, Duration ttl) {
+        this(capacity, ttl, Clock.systemUTC());
+    }
+
+    public RequestIdCache(int capacity, Duration ttl, Clock clock) {
+        if (capacity < WAYS) {
+            throw new IllegalArgumentException("capacity must be at least " + WAYS + ": " + capacity);
+        }
+        int buckets = Integer.highestOneBit(capacity / WAYS);
+        this.slots = new AtomicReferenceArray<>(buckets * WAYS);
+        this.bucketMask = buckets - 1;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @return 만료되지 않은 값, 없으면 null
+     */
+    public V get(String requestId) {
+        int hash = requestId.hashCode();
+        int start = bucketOf(hash) * WAYS;
+        long now = clock.millis();
+        for (int i = start; i < start + WAYS; i++) {
+            Entry<V> entry = slots.get(i);
+            if (entry != null && entry.hash == hash && entry.expiresAt > now && entry.requestId.equals(requestId)) {
+                hits.increment();
+                return entry.value;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * 살아있는 값이 없을 때만 value 를 넣는다.
+     *
+     * @return 이미 있던 값, 새로 넣었으면 null
+     */
+    public V putIfAbsent(String requestId, V value) {
+        int hash = requestId.hashCode();
+        int bucket = bucketOf(hash);
+        int start = bucket * WAYS;
+        ReentrantLock lock = locks[bucket & (LOCK_STRIPES - 1)];
+        lock.lock();
+        try {
+            long now = clock.millis();
+            int victim = -1;
+            long victimExpiresAt = Long.MAX_VALUE;
+            for (int i = start; i < start + WAYS; i++) {
+                Entry<V> entry = slots.get(i);
+                if (entry == null || entry.expiresAt <= now) {
+                    if (victimExpiresAt > Long.MIN_VALUE) {
+                        victim = i;
+                        victimExpiresAt = Long.MIN_VALUE;
+                    }
+                    continue;
+                }
+                if (entry.hash == hash && entry.requestId.equals(requestId)) {
+                    return entry.value;
+                }
+                if (entry.expiresAt < victimExpiresAt) {
+                    victim = i;
+                    victimExpiresAt = entry.expiresAt;
+                }
+            }
+            if (victimExpiresAt != Long.MIN_VALUE) {
+                evictions.increment();
+            }
+            slots.set(victim, new Entry<>(hash, requestId, value, now + ttlMillis));
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * requestId 의 값이 value 일 때만 지운다. (처리에 실패한 요청을 다시 받을 수 있게)
+     */
+    public void remove(String requestId, V value) {
+        int hash = requestId.hashCode();
+        int bucket = bucketOf(hash);
+        int start = bucket * WAYS;
+        ReentrantLock lock = locks[bucket & (LOCK_STRIPES - 1)];
+        lock.lock();
+        try {
+            for (int i = start; i < start + WAYS; i++) {
+                Entry<V> entry = slots.get(i);
+                if (entry != null && entry.value == value && entry.requestId.equals(requestId)) {
+                    slots.set(i, null);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private int bucketOf(int hash) {
+        // String.hashCode 의 하위 비트는 치우치기 쉬워서 섞은 뒤 자른다.
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & bucketMask;
+    }
+
+    private static final class Entry<V> {
+        final int hash;
+        final String requestId;
+        final V value;
+        final long expiresAt;
+
+        Entry(int hash, String requestId, V value, long expiresAt) {
+            this.hash = hash;
+            this.requestId = requestId;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * @param evictions 만료 전에 밀려난 항목 수
+     */
+    public record CacheStats(long hits, long misses, long evictions) {
+    }
+}
@@ -0,0 +1,525 @@
+package com.hello.core.order;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ - 주문을 시간 구간(partition)별 세그먼트 파일에 이어 쓰는 저장소
+ - 세그먼트 = orders-<구간 시작 millis>-<번호>.seg
+    - 구간(기본 1시간)이 바뀌거나 세그먼트가 segmentBytes 만큼 차면 지금 세그먼트를 닫고(seal) 새 파일을 연다.
+    - 쓰기는 항상 열린 세그먼트 하나의 끝에만 붙이므로(순차 쓰기), 이력이 수십억 건이 되어도 저장 비용이 그대로다.
+    - 열린 세그먼트는 segmentBytes 크기로 메모리 매핑(mmap)해서 레코드를 바로 복사한다.
+
+ 레코드 = [int 본문 길이][long 주문 시각][long 회원 id][int 상품 가격][int 할인 금액][int 이름 길이 또는 -1][UTF-8 상품 이름]
+ - 본문 길이가 0 이면 레코드의 끝이다. (매핑한 파일은 0 으로 채워져 있다)
+
+ 세그먼트를 닫을 때 파일 끝에 색인(footer)을 붙인다.
+ - 색인 = (회원 id, 레코드 위치) 를 회원 id 순으로 정렬한 배열
+ - trailer = [long 최소 시각][long 최대 시각][int 레코드 수][int 색인 위치][long MAGIC]
+ - 조회는 시각 범위가 겹치는 세그먼트만 골라서, 색인을 이진 탐색해 그 회원의 레코드만 읽는다.
+
+ - 오래된 세그먼트는 파일 단위로 dropBefore(지우기) / archiveBefore(다른 디렉터리로 옮기기) 한다.
+ - 쓰기는 mmap 에만 하고 fsync 는 세그먼트를 닫을 때와 flush() 에서만 한다. (주문 하나마다 디스크를 기다리지 않는다)
+ - 시작할 때 trailer 가 없는 세그먼트(비정상 종료)는 레코드를 훑어서 색인을 다시 만들고 닫는다.
+ */
+public class SegmentedOrderRepository implements OrderRepository, AutoCloseable {
+
+    public static final Duration DEFAULT_PARTITION = Duration.ofHours(1);
+    public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private static final String PREFIX = "orders-";
+    private static final String SUFFIX = ".seg";
+    private static final long MAGIC = 0x4F52444552534547L; // "ORDERSEG"
+    private static final int TRAILER_BYTES = 32;
+    private static final int INDEX_ENTRY_BYTES = 12;
+    private static final int FIXED_BODY_BYTES = 8 + 8 + 4 + 4 + 4;
+
+    private final Path directory;
+    private final long partitionMillis;
+    private final int segmentBytes;
+    private final Clock clock;
+
+    // 시작 시각 순, 마지막이 열린 세그먼트일 수 있다.
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    // 쓰기와 열린 세그먼트 조회를 보호한다. 닫힌 세그먼트는 바뀌지 않으므로 락 없이 읽는다.
+    private final ReentrantLock lock = new ReentrantLock();
+    private Segment active;
+    private boolean closed;
+
+    public SegmentedOrderRepository(Path directory) {
+        this(directory, DEFAULT_PARTITION, DEFAULT_SEGMENT_BYTES, Clock.systemUTC());
+    }
+
+    public SegmentedOrderRepository(Path directory, Duration partition, int segmentBytes, Clock clock) {
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("segmentBytes must be at least 4096: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.partitionMillis = partition.toMillis();
+        this.segmentBytes = segmentBytes;
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+            for (Path path : segmentFiles(directory)) {
+                segments.add(Segment.open(path));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("주문 저장소를 열 수 없습니다: " + directory, e);
+        }
+    }
+
+    @Override
+    public void save(Order order) {
+        byte[] name = nameBytes(order.getItemName());
+        checkRecordSize(name);
+        lock.lock();
+        try {
+            append(clock.millis(), order.getMemberId(), order.getItemPrice(), order.getDiscountPrice(), name);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 락을 한 번만 잡고, Order 객체를 만들지 않고 배열에서 바로 쓴다.
+    // 크기가 맞지 않는 레코드가 하나라도 있으면 아무것도 쓰지 않고 실패한다. (IllegalArgumentException 이면 저장된 주문이 없다)
+    @Override
+    public void saveAll(OrderBatch batch) {
+        byte[][] names = new byte[batch.size()][];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = nameBytes(batch.getItemName(i));
+            checkRecordSize(names[i]);
+        }
+        lock.lock();
+        try {
+            long now = clock.millis();
+            for (int i = 0; i < names.length; i++) {
+                append(now, batch.getMemberId(i), batch.getItemPrice(i), batch.getDiscountPrice(i), names[i]);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Order> findByMemberId(long memberId, long fromMillis, long toMillis) {
+        List<Order> result = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.partitionStart >= toMillis || segment.partitionStart + partitionMillis <= fromMillis) {
+                continue;
+            }
+            if (segment.sealed) {
+                segment.find(memberId, fromMillis, toMillis, result);
+                continue;
+            }
+            lock.lock();
+            try {
+                segment.find(memberId, fromMillis, toMillis, result);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 구간이 cutoffMillis 이전에 끝난 닫힌 세그먼트 파일을 지운다.
+     *
+     * @return 지운 세그먼트 수
+     */
+    public int dropBefore(long cutoffMillis) {
+        int dropped = 0;
+        for (Segment segment : expiredSegments(cutoffMillis)) {
+            segments.remove(segment);
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            dropped++;
+        }
+        return dropped;
+    }
+
+    /**
+     * 구간이 cutoffMillis 이전에 끝난 닫힌 세그먼트 파일을 archiveDirectory 로 옮긴다.
+     * 옮긴 파일은 그대로 다른 SegmentedOrderRepository 로 열 수 있다.
+     *
+     * @return 옮긴 세그먼트 수
+     */
+    public int archiveBefore(long cutoffMillis, Path archiveDirectory) {
+        int archived = 0;
+        try {
+            Files.createDirectories(archiveDirectory);
+            for (Segment segment : expiredSegments(cutoffMillis)) {
+                segments.remove(segment);
+                Files.move(segment.path, archiveDirectory.resolve(segment.path.getFileName()));
+                archived++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return archived;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    // 열린 세그먼트의 내용을 디스크에 내린다.
+    public void flush() {
+        lock.lock();
+        try {
+            if (active != null) {
+                active.buffer.force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            sealActive();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 빈 세그먼트에도 들어가지 않는 레코드는 상태를 바꾸기 전에 거른다.
+    private void checkRecordSize(byte[] name) {
+        int recordBytes = recordBytes(name);
+        if (recordBytes + INDEX_ENTRY_BYTES + TRAILER_BYTES > segmentBytes) {
+            throw new IllegalArgumentException("주문 레코드가 세그먼트보다 큽니다: " + recordBytes + " bytes");
+        }
+    }
+
+    // lock 안에서 호출한다. 레코드 크기는 checkRecordSize 로 미리 확인한다.
+    private void append(long now, long memberId, int itemPrice, int discountPrice, byte[] name) {
+        if (closed) {
+            throw new IllegalStateException("주문 저장소가 닫혔습니다.");
+        }
+        long partitionStart = now - Math.floorMod(now, partitionMillis);
+        int recordBytes = recordBytes(name);
+        try {
+            if (active != null && (active.partitionStart != partitionStart || !active.fits(recordBytes))) {
+                sealActive();
+            }
+            if (active == null) {
+                Segment created = Segment.create(directory, partitionStart, nextPart(partitionStart), segmentBytes);
+                segments.add(created);
+                active = created;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        active.append(now, memberId, itemPrice, discountPrice, name);
+    }
+
+    private void sealActive() throws IOException {
+        if (active != null) {
+            Segment sealed = active.seal();
+            segments.set(segments.indexOf(active), sealed);
+            active = null;
+        }
+    }
+
+    private int nextPart(long partitionStart) {
+        int part = 0;
+        for (Segment segment : segments) {
+            if (segment.partitionStart == partitionStart) {
+                part = Math.max(part, segment.part + 1);
+            }
+        }
+        return part;
+    }
+
+    private List<Segment> expiredSegments(long cutoffMillis) {
+        List<Segment> expired = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.sealed && segment.partitionStart + partitionMillis <= cutoffMillis) {
+                expired.add(segment);
+            }
+        }
+        return expired;
+    }
+
+    private static int recordBytes(byte[] name) {
+        return 4 + FIXED_BODY_BYTES + (name == null ? 0 : name.length);
+    }
+
+    private static byte[] nameBytes(String itemName) {
+        return itemName == null ? null : itemName.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        // 이름이 구간 시작(13자리) + 번호(4자리) 로 고정 폭이라 이름 순이 곧 시간 순이다.
+        files.sort(null);
+        return files;
+    }
+
+    /*
+     - 세그먼트 파일 하나
+     - 열린 세그먼트는 ids/offsets 배열에 (회원 id, 레코드 위치) 를 쌓아두고 조회도 이 배열을 훑는다.
+     - 닫힌 세그먼트는 읽기 전용 매핑과 파일 끝의 색인만 쓴다. (힙에 색인을 올리지 않는다)
+     */
+    private static final class Segment {
+
+        final Path path;
+        final long partitionStart;
+        final int part;
+        final boolean sealed;
+        final MappedByteBuffer buffer;
+
+        private long minTime = Long.MAX_VALUE;
+        private long maxTime = Long.MIN_VALUE;
+
+        // 열린 세그먼트 전용
+        private FileChannel channel;
+        private int writeOffset;
+        private long[] ids;
+        private int[] offsets;
+        private int count;
+
+        // 닫힌 세그먼트 전용
+        private int indexOffset;
+        private int indexEntries;
+
+        private Segment(Path path, long partitionStart, int part, boolean sealed, MappedByteBuffer buffer) {
+            this.path = path;
+            this.partitionStart = partitionStart;
+            this.part = part;
+            this.sealed = sealed;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path directory, long partitionStart, int part, int segmentBytes) throws IOException {
+            Path path = directory.resolve(String.format("%s%013d-%04d%s", PREFIX, partitionStart, part, SUFFIX));
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(path, partitionStart, part, false,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+            segment.channel = channel;
+            segment.ids = new long[1024];
+            segment.offsets = new int[1024];
+            return segment;
+        }
+
+        static Segment open(Path path) throws IOException {
+            String name = path.getFileName().toString();
+            long partitionStart = Long.parseLong(name.substring(PREFIX.length(), PREFIX.length() + 13));
+            int part = Integer.parseInt(name.substring(PREFIX.length() + 14, PREFIX.length() + 18));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size >= TRAILER_BYTES) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    if (buffer.getLong((int) size - 8) == MAGIC) {
+                        Segment segment = new Segment(path, partitionStart, part, true, buffer);
+                        segment.minTime = buffer.getLong((int) size - TRAILER_BYTES);
+                        segment.maxTime = buffer.getLong((int) size - TRAILER_BYTES + 8);
+                        segment.indexEntries = buffer.getInt((int) size - TRAILER_BYTES + 16);
+                        segment.indexOffset = buffer.getInt((int) size - TRAILER_BYTES + 20);
+                        return segment;
+                    }
+                }
+            }
+            return recover(path, partitionStart, part);
+        }
+
+        // 닫히지 않은 세그먼트의 레코드를 처음부터 훑어서 색인을 다시 만들고 닫는다.
+        private static Segment recover(Path path, long partitionStart, int part) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = channel.size();
+            Segment segment = new Segment(path, partitionStart, part, false,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            segment.channel = channel;
+            segment.ids = new long[1024];
+            segment.offsets = new int[1024];
+            ByteBuffer buffer = segment.buffer;
+            int offset = 0;
+            while (offset + 4 + FIXED_BODY_BYTES <= size) {
+                int bodyLength = buffer.getInt(offset);
+                if (bodyLength < FIXED_BODY_BYTES || offset + 4L + bodyLength > size) {
+                    break;
+                }
+                int nameLength = buffer.getInt(offset + 4 + 24);
+                if (nameLength != -1 && (nameLength < 0 || FIXED_BODY_BYTES + nameLength != bodyLength)) {
+                    break;
+                }
+                segment.track(buffer.getLong(offset + 4), buffer.getLong(offset + 12), offset);
+                offset += 4 + bodyLength;
+            }
+            segment.writeOffset = offset;
+            return segment.seal();
+        }
+
+        boolean fits(int recordBytes) {
+            long footer = (long) (count + 1) * INDEX_ENTRY_BYTES + TRAILER_BYTES;
+            return writeOffset + recordBytes + footer <= buffer.capacity();
+        }
+
+        void append(long orderedAt, long memberId, int itemPrice, int discountPrice, byte[] name) {
+            int offset = writeOffset;
+            ByteBuffer out = buffer;
+            out.putLong(offset + 4, orderedAt);
+            out.putLong(offset + 12, memberId);
+            out.putInt(offset + 20, itemPrice);
+            out.putInt(offset + 24, discountPrice);
+            out.putInt(offset + 28, name == null ? -1 : name.length);
+            if (name != null) {
+                out.put(offset + 32, name);
+            }
+            int bodyLength = FIXED_BODY_BYTES + (name == null ? 0 : name.length);
+            // 길이를 마지막에 써서, 도중에 죽으면 복구 시 이 레코드를 끝으로 본다.
+            out.putInt(offset, bodyLength);
+            writeOffset = offset + 4 + bodyLength;
+            track(orderedAt, memberId, offset);
+        }
+
+        private void track(long orderedAt, long memberId, int offset) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count << 1);
+                offsets = Arrays.copyOf(offsets, count << 1);
+            }
+            ids[count] = memberId;
+            offsets[count] = offset;
+            count++;
+            minTime = Math.min(minTime, orderedAt);
+            maxTime = Math.max(maxTime, orderedAt);
+        }
+
+        // 색인과 trailer 를 붙이고, 파일을 실제 크기로 줄인 뒤 읽기 전용으로 다시 연다.
+        Segment seal() throws IOException {
+            sortIndex(ids, offsets, 0, count - 1);
+            int indexOffset = writeOffset;
+            int end = indexOffset + count * INDEX_ENTRY_BYTES + TRAILER_BYTES;
+            ByteBuffer footer = ByteBuffer.allocate(end - indexOffset);
+            for (int i = 0; i < count; i++) {
+                footer.putLong(ids[i]).putInt(offsets[i]);
+            }
+            footer.putLong(minTime).putLong(maxTime).putInt(count).putInt(indexOffset).putLong(MAGIC);
+            footer.flip();
+            buffer.force();
+            channel.truncate(indexOffset);
+            long position = indexOffset;
+            while (footer.hasRemaining()) {
+                position += channel.write(footer, position);
+            }
+            channel.force(true);
+            channel.close();
+            return open(path);
+        }
+
+        // lock 안(열린 세그먼트) 또는 락 없이(닫힌 세그먼트) 호출된다.
+        void find(long memberId, long fromMillis, long toMillis, List<Order> result) {
+            if (!sealed) {
+                for (int i = 0; i < count; i++) {
+                    if (ids[i] == memberId) {
+                        readInto(offsets[i], fromMillis, toMillis, result);
+                    }
+                }
+                return;
+            }
+            if (maxTime < fromMillis || minTime >= toMillis) {
+                return;
+            }
+            // 색인에서 memberId 가 처음 나오는 위치를 이진 탐색한다.
+            int low = 0;
+            int high = indexEntries;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (buffer.getLong(indexOffset + mid * INDEX_ENTRY_BYTES) < memberId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            for (int i = low; i < indexEntries; i++) {
+                int entry = indexOffset + i * INDEX_ENTRY_BYTES;
+                if (buffer.getLong(entry) != memberId) {
+                    break;
+                }
+                readInto(buffer.getInt(entry + 8), fromMillis, toMillis, result);
+            }
+        }
+
+        private void readInto(int offset, long fromMillis, long toMillis, List<Order> result) {
+            long orderedAt = buffer.getLong(offset + 4);
+            if (orderedAt < fromMillis || orderedAt >= toMillis) {
+                return;
+            }
+            int nameLength = buffer.getInt(offset + 28);
+            String itemName = null;
+            if (nameLength >= 0) {
+                byte[] name = new byte[nameLength];
+                buffer.get(offset + 32, name);
+                itemName = new String(name, StandardCharsets.UTF_8);
+            }
+            result.add(new Order(buffer.getLong(offset + 12), itemName,
+                    buffer.getInt(offset + 20), buffer.getInt(offset + 24)));
+        }
+
+        // (회원 id, 위치) 쌍을 함께 정렬한다. 같은 회원은 위치(= 저장 순서) 순으로 둔다.
+        private static void sortIndex(long[] ids, int[] offsets, int low, int high) {
+            while (low < high) {
+                int i = low;
+                int j = high;
+                int mid = (low + high) >>> 1;
+                long pivotId = ids[mid];
+                int pivotOffset = offsets[mid];
+                while (i <= j) {
+                    while (ids[i] < pivotId || (ids[i] == pivotId && offsets[i] < pivotOffset)) {
+                        i++;
+                    }
+                    while (ids[j] > pivotId || (ids[j] == pivotId && offsets[j] > pivotOffset)) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        long id = ids[i];
+                        ids[i] = ids[j];
+                        ids[j] = id;
+                        int offset = offsets[i];
+                        offsets[i] = offsets[j];
+                        offsets[j] = offset;
+                        i++;
+                        j--;
+                    }
+                }
+                // 작은 쪽만 재귀해서 스택 깊이를 log n 으로 제한한다.
+                if (j - low < high - i) {
+                    sortIndex(ids, offsets, low, j);
+                    low = i;
+                } else {
+                    sortIndex(ids, offsets, i, high);
+                    high = j;
+                }
+            }
+        }
+    }
+}
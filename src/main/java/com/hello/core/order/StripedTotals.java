@@ -0,0 +1,138 @@
+package com.hello.core.order;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/*
+ - 주문 건수/금액/할인 합계를 여러 칸(cell)에 나눠 더하는 카운터 (LongAdder 와 같은 방식)
+ - 처음에는 칸 하나로 시작하고, 더하다가 다른 스레드와 부딪히면 칸 수를 두 배로 늘린다. (최대 CPU 수)
+   스레드마다 정해진 칸에 더하므로 주문이 몰려도 한 변수에 CAS 가 집중되지 않는다.
+ - LongAdder 를 값마다 따로 두면 count 는 더해졌는데 gross 는 아직인 순간을 읽을 수 있다.
+   여기서는 칸 하나의 세 값을 seqlock 으로 묶어서 같이 바꾸고, 읽는 쪽은 락 없이 버전이 그대로일 때까지 다시 읽는다.
+   그래서 snapshot() 에는 주문 한 건이 통째로 들어가거나 통째로 빠진다. (count, gross, discount 가 항상 서로 맞는다)
+ - 칸마다 앞뒤를 long 으로 채워서(padding) 이웃한 칸이 같은 캐시 라인에 올라가지 않게 한다. (false sharing)
+   @Contended 는 -XX:-RestrictContended 없이는 JDK 밖에서 무시되므로 상속으로 필드 순서를 고정하는 방식을 쓴다.
+   (JVM 은 상위 클래스의 필드를 하위 클래스 필드보다 앞에 둔다)
+ */
+final class StripedTotals {
+
+    private static final int MAX_CELLS = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+    private volatile Cell[] cells = {new Cell()};
+
+    void add(long gross, long discount) {
+        Cell[] cs = cells;
+        Cell cell = cs[probe() & (cs.length - 1)];
+        if (!cell.tryAdd(gross, discount)) {
+            cell.add(gross, discount);
+            grow(cs);
+        }
+    }
+
+    OrderTotals snapshot() {
+        long count = 0;
+        long gross = 0;
+        long discount = 0;
+        for (Cell cell : cells) {
+            long[] values = cell.read();
+            count += values[0];
+            gross += values[1];
+            discount += values[2];
+        }
+        return new OrderTotals(count, gross, discount);
+    }
+
+    private void grow(Cell[] seen) {
+        if (seen.length >= MAX_CELLS || cells != seen) {
+            return;
+        }
+        synchronized (this) {
+            if (cells == seen) {
+                Cell[] grown = new Cell[seen.length << 1];
+                System.arraycopy(seen, 0, grown, 0, seen.length);
+                for (int i = seen.length; i < grown.length; i++) {
+                    grown[i] = new Cell();
+                }
+                cells = grown;
+            }
+        }
+    }
+
+    // 스레드마다 고정된 칸 번호 (가상 스레드도 id 가 다르므로 고르게 퍼진다)
+    private static int probe() {
+        long id = Thread.currentThread().threadId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // 캐시 라인(64바이트)보다 길게 앞을 채운다.
+    @SuppressWarnings("unused")
+    private abstract static class CellPadBefore {
+        long p01, p02, p03, p04, p05, p06, p07, p08;
+    }
+
+    private abstract static class CellValues extends CellPadBefore {
+        // 홀수면 쓰는 중
+        volatile long seq;
+        long count;
+        long gross;
+        long discount;
+    }
+
+    // 뒤를 채워서 다음에 할당된 객체(다른 칸)와 캐시 라인을 나누지 않게 한다.
+    @SuppressWarnings("unused")
+    private static final class Cell extends CellValues {
+
+        private static final VarHandle SEQ;
+
+        long p11, p12, p13, p14, p15, p16, p17, p18;
+
+        static {
+            try {
+                SEQ = MethodHandles.lookup().findVarHandle(CellValues.class, "seq", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        boolean tryAdd(long gross, long discount) {
+            long s = seq;
+            if ((s & 1) != 0 || !SEQ.compareAndSet(this, s, s + 1)) {
+                return false;
+            }
+            // 홀수 seq 가 값보다 먼저 보이게 한다.
+            VarHandle.storeStoreFence();
+            apply(gross, discount);
+            seq = s + 2;
+            return true;
+        }
+
+        void add(long gross, long discount) {
+            while (!tryAdd(gross, discount)) {
+                Thread.onSpinWait();
+            }
+        }
+
+        private void apply(long gross, long discount) {
+            this.count++;
+            this.gross += gross;
+            this.discount += discount;
+        }
+
+        long[] read() {
+            while (true) {
+                long before = seq;
+                if ((before & 1) == 0) {
+                    long c = count;
+                    long g = gross;
+                    long d = discount;
+                    VarHandle.loadLoadFence();
+                    if (seq == before) {
+                        return new long[]{c, g, d};
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
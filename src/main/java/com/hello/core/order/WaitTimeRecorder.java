@@ -0,0 +1,70 @@
+package com.hello.core.order;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ - 대기 시간(나노초)을 2의 거듭제곱 구간(bucket)으로 세는 히스토그램
+ - 기록은 LongAdder 와 배열 칸 증가뿐이라 주문 처리 경로를 막지 않는다.
+ - 백분위는 구간의 윗값으로 돌려주므로 실제보다 최대 두 배까지 크게 나올 수 있다. (과부하 판단에는 충분하다)
+ */
+public class WaitTimeRecorder {
+
+    private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+        count.increment();
+        totalNanos.add(value);
+        if (value > maxNanos.get()) {
+            maxNanos.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * @param quantile 0.0 ~ 1.0 (예: 0.99)
+     * @return 기록이 없으면 0
+     */
+    public long percentileNanos(double quantile) {
+        long[] counts = new long[buckets.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                return i == 0 ? 0 : Math.min(maxNanos.get(), i == Long.SIZE ? Long.MAX_VALUE : (1L << i) - 1);
+            }
+        }
+        return maxNanos.get();
+    }
+
+    public WaitTimeStats snapshot() {
+        long n = count.sum();
+        return new WaitTimeStats(
+                n,
+                n == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.sum() / n),
+                TimeUnit.NANOSECONDS.toMicros(percentileNanos(0.5)),
+                TimeUnit.NANOSECONDS.toMicros(percentileNanos(0.99)),
+                TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+    }
+
+    /**
+     * 대기 시간 요약 (마이크로초)
+     */
+    public record WaitTimeStats(long count, long meanMicros, long p50Micros, long p99Micros, long maxMicros) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.hello.core.web;
+
+import com.hello.core.discount.DiscountSettings;
+import com.hello.core.discount.DiscountSettingsHolder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+
+/*
+ - 할인 설정을 HTTP 로 보고 바꾸는 컨트롤러
+ - GET  /discount-settings                                  지금 설정
+ - POST /discount-settings?ratePercent=15&fixAmount=2000    새 설정 게시 (빠진 값은 지금 값 유지, 범위를 벗어나면 400)
+ - 파일로 바꾸는 경우는 DiscountSettingsWatcher 참고
+ */
+@Controller
+@RequestMapping("discount-settings")
+@RequiredArgsConstructor
+public class DiscountSettingsController {
+
+    private final DiscountSettingsHolder discountSettingsHolder;
+
+    @GetMapping
+    @ResponseBody
+    public DiscountSettings current() {
+        return discountSettingsHolder.current();
+    }
+
+    @PostMapping
+    @ResponseBody
+    public DiscountSettings update(
+            @RequestParam(required = false) Integer ratePercent,
+            @RequestParam(required = false) Integer fixAmount
+    ) {
+        // 범위를 벗어난 값은 DiscountSettings 가 거절한다. 서버 오류(500)가 아니라 잘못된 요청(400)으로 돌려준다.
+        try {
+            return discountSettingsHolder.update(previous -> new DiscountSettings(
+                    previous.version(),
+                    ratePercent == null ? previous.ratePercent() : ratePercent,
+                    fixAmount == null ? previous.fixAmount() : fixAmount));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.hello.core.discount;
+
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiscountBatchTest {
+
+    // 벡터 한 개로 나눠 떨어지지 않는 길이 (나머지 스칼라 구간까지 확인)
+    static final int ITEMS = 10_007;
+
+    int[] prices = new int[ITEMS];
+    byte[] grades = new byte[ITEMS];
+
+    {
+        Random random = new Random(21);
+        for (int i = 0; i < ITEMS; i++) {
+            // int 범위를 넘는 price * percent 도 한 건씩 계산한 결과와 같아야 한다.
+            prices[i] = random.nextInt(Integer.MAX_VALUE);
+            grades[i] = (byte) (random.nextInt(Grade.values().length + 1) - 1);
+        }
+    }
+
+    @Test
+    @DisplayName("discountAll 은 discount 를 한 건씩 부른 것과 같은 결과를 낸다.")
+    void sameAsPerCall() {
+        for (DiscountPolicy policy : List.of(new RateDiscountPolicy(), new FixDiscountPolicy(),
+                new RuleDiscountPolicy(List.of(DiscountRule.percent(Grade.VIP, 15).withCap(10_000))))) {
+            // given
+            int[] discounts = new int[ITEMS];
+
+            // when
+            policy.discountAll(prices, grades, discounts);
+
+            // then
+            for (int i = 0; i < ITEMS; i++) {
+                Grade grade = grades[i] < 0 ? null : Grade.fromCode(grades[i]);
+                assertThat(discounts[i]).isEqualTo(policy.discount(new Member(0L, null, grade), prices[i]));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("배열 길이가 맞지 않으면 예외가 발생한다.")
+    void lengthMismatch() {
+        assertThatThrownBy(() -> new RateDiscountPolicy().discountAll(new int[3], new byte[2], new int[3]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,114 @@
+package com.hello.core.discount;
+
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiscountChainTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    Member basic = new Member(2L, "memberBASIC", Grade.BASIC);
+    // 등급 10% + 캠페인 정액 3000원 (모든 회원)
+    DiscountPolicy rate = new RateDiscountPolicy();
+    DiscountPolicy campaign = new RuleDiscountPolicy(List.of(DiscountRule.fixed(null, 3000)));
+
+    @Test
+    @DisplayName("SUM_WITH_CAP 은 할인을 더하되 cap 에 닿으면 멈추고, 단계별 적용 금액을 알려준다.")
+    void sumWithCap() {
+        // given
+        CountingPolicy last = new CountingPolicy(500);
+        DiscountChain chain = DiscountChain.of(DiscountChain.Mode.SUM_WITH_CAP, 4000, rate, campaign, last);
+        int[] contributions = new int[chain.stepCount()];
+
+        // when
+        int capped = chain.discount(vip, 20000, contributions);
+        int callsWhenCapped = last.calls();
+        int uncapped = chain.discount(basic, 20000);
+
+        // then
+        assertThat(capped).isEqualTo(4000);
+        assertThat(contributions).containsExactly(2000, 2000, 0);
+        // cap 에 닿아서 마지막 단계는 부르지 않았다.
+        assertThat(callsWhenCapped).isEqualTo(0);
+        assertThat(uncapped).isEqualTo(3500);
+        assertThat(last.calls()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("BEST_OF 는 가장 큰 할인 하나, FIRST_MATCH 는 처음으로 할인을 주는 정책 하나만 쓴다.")
+    void bestOfAndFirstMatch() {
+        // given
+        DiscountChain bestOf = DiscountChain.of(DiscountChain.Mode.BEST_OF, DiscountChain.NO_CAP, rate, campaign);
+        DiscountChain firstMatch = DiscountChain.of(DiscountChain.Mode.FIRST_MATCH, DiscountChain.NO_CAP, rate, campaign);
+        int[] contributions = new int[2];
+
+        // when, then
+        assertThat(bestOf.discount(vip, 50000, contributions)).isEqualTo(5000);
+        assertThat(contributions).containsExactly(5000, 0);
+        assertThat(bestOf.discount(vip, 10000, contributions)).isEqualTo(3000);
+        assertThat(contributions).containsExactly(0, 3000);
+        assertThat(firstMatch.discount(vip, 10000, contributions)).isEqualTo(1000);
+        assertThat(contributions).containsExactly(1000, 0);
+        assertThat(firstMatch.discount(basic, 10000, contributions)).isEqualTo(3000);
+        assertThat(contributions).containsExactly(0, 3000);
+        // 할인은 가격을 넘지 않는다.
+        assertThat(firstMatch.discount(basic, 2000)).isEqualTo(2000);
+    }
+
+    @Test
+    @DisplayName("설정에 적은 빈 이름 순서대로 체인을 만들고, 없는 이름이면 시작할 때 실패한다.")
+    void chainFromBeans() {
+        // given
+        Map<String, DiscountPolicy> beans = Map.of("rateDiscountPolicy", rate, "fixDiscountPolicy", new FixDiscountPolicy());
+        DiscountChainConfig config = new DiscountChainConfig();
+
+        // when
+        DiscountChain chain = config.discountChain(beans, List.of("rateDiscountPolicy", " fixDiscountPolicy"),
+                DiscountChain.Mode.SUM_WITH_CAP, 1500);
+
+        // then
+        assertThat(chain.stepCount()).isEqualTo(2);
+        assertThat(chain.step(0)).isSameAs(rate);
+        assertThat(chain.discount(vip, 10000)).isEqualTo(1500);
+        assertThatThrownBy(() -> config.discountChain(beans, List.of("campaignPolicy"), DiscountChain.Mode.BEST_OF, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // 감싼 정책을 그대로 부르면서 호출 횟수를 센다. (MemoizingDiscountPolicyTest 에서도 쓴다)
+    static class CountingPolicy implements PureDiscountPolicy {
+        private final PureDiscountPolicy delegate;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingPolicy(PureDiscountPolicy delegate) {
+            this.delegate = delegate;
+        }
+
+        // 항상 amount 만큼 할인한다.
+        CountingPolicy(int amount) {
+            this((member, price) -> amount);
+        }
+
+        int calls() {
+            return calls.get();
+        }
+
+        @Override
+        public long configurationVersion() {
+            return delegate.configurationVersion();
+        }
+
+        @Override
+        public int discount(Member member, int price) {
+            calls.incrementAndGet();
+            return delegate.discount(member, price);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.hello.core.discount;
+
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiscountPolicyRegistryTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    DiscountPolicyRegistry registry = new DiscountPolicyRegistry(new LinkedHashMap<>(Map.of(
+            "rateDiscountPolicy", new RateDiscountPolicy())));
+
+    @Test
+    @DisplayName("코드를 번호로 한 번 바꿔 두고 번호로 호출하며, 호출 수를 센다.")
+    void dispatchBySlot() {
+        // given
+        int fix = registry.register("fixDiscountPolicy", new FixDiscountPolicy());
+        int rate = registry.slotOf("rateDiscountPolicy");
+
+        // when
+        int rateDiscount = registry.discount(rate, vip, 20000);
+        int fixDiscount = registry.discount(fix, vip, 20000);
+        registry.discount(fix, vip, 20000);
+
+        // then
+        assertThat(rateDiscount).isEqualTo(2000);
+        assertThat(fixDiscount).isEqualTo(1000);
+        assertThat(registry.calls()).isEqualTo(Map.of("rateDiscountPolicy", 1L, "fixDiscountPolicy", 2L));
+        assertThatThrownBy(() -> registry.slotOf("unknown")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("가중치대로 정책을 나눠 호출한다.")
+    void weightedSplit() {
+        // given
+        registry.register("fixDiscountPolicy", new FixDiscountPolicy());
+        DiscountPolicy split = registry.split(Map.of("rateDiscountPolicy", 90, "fixDiscountPolicy", 10));
+
+        // when
+        for (int i = 0; i < 100_000; i++) {
+            split.discount(vip, 20000);
+        }
+
+        // then
+        assertThat(registry.calls().get("fixDiscountPolicy")).isBetween(9_000, 11_000);
+        assertThat(registry.calls().get("rateDiscountPolicy")).isBetween(89_000, 91_000);
+    }
+}
@@ -0,0 +1,70 @@
+package com.hello.core.discount;
+
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiscountSettingsTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    DiscountSettingsHolder holder = new DiscountSettingsHolder();
+
+    @Test
+    @DisplayName("설정을 바꾸면 새 version 으로 게시되고 다음 할인 계산부터 적용된다.")
+    void update() {
+        // given
+        RateDiscountPolicy rate = new RateDiscountPolicy();
+        FixDiscountPolicy fix = new FixDiscountPolicy();
+        rate.setDiscountSettings(holder);
+        fix.setDiscountSettings(holder);
+
+        // when
+        DiscountSettings published = holder.update(20, 3000);
+
+        // then
+        assertThat(published).isEqualTo(new DiscountSettings(1, 20, 3000));
+        assertThat(rate.discount(vip, 10000)).isEqualTo(2000);
+        assertThat(fix.discount(vip, 10000)).isEqualTo(3000);
+        assertThatThrownBy(() -> holder.update(101, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(holder.current().version()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("설정 파일이 바뀌면 다시 읽어서 게시하고, 잘못된 파일이면 이전 설정을 유지한다.")
+    void watchFile(@TempDir Path dir) throws Exception {
+        // given
+        Path file = dir.resolve("discount.properties");
+        Files.writeString(file, "discount.rate-percent=15\n");
+
+        try (DiscountSettingsWatcher watcher = new DiscountSettingsWatcher(file, holder)) {
+            assertThat(holder.current().ratePercent()).isEqualTo(15);
+            assertThat(holder.current().fixAmount()).isEqualTo(1000);
+
+            // when
+            Files.writeString(file, "discount.rate-percent=25\ndiscount.fix-amount=500\n");
+            awaitVersion(2);
+            Files.writeString(file, "discount.rate-percent=abc\n");
+            boolean reloaded = watcher.reload();
+
+            // then
+            assertThat(reloaded).isFalse();
+            assertThat(holder.current()).isEqualTo(new DiscountSettings(2, 25, 500));
+        }
+    }
+
+    // WatchService 는 OS 에 따라 알림이 몇 초 늦을 수 있다.
+    private void awaitVersion(long version) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (holder.current().version() < version && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.hello.core.discount;
+
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoizingDiscountPolicyTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    Member basic = new Member(2L, "memberBASIC", Grade.BASIC);
+    Member noGrade = new Member(3L, "memberNone", null);
+
+    @Test
+    @DisplayName("같은 (등급, 가격) 은 한 번만 계산하고 이후에는 기억해 둔 결과를 돌려준다.")
+    void memoize() {
+        // given
+        DiscountChainTest.CountingPolicy counting = new DiscountChainTest.CountingPolicy(new RateDiscountPolicy());
+        MemoizingDiscountPolicy memo = new MemoizingDiscountPolicy(counting, 1024);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            assertThat(memo.discount(vip, 10000)).isEqualTo(1000);
+            assertThat(memo.discount(basic, 10000)).isEqualTo(0);
+            assertThat(memo.discount(noGrade, 10000)).isEqualTo(0);
+        }
+
+        // then
+        assertThat(counting.calls()).isEqualTo(3);
+        assertThat(memo.stats().hits()).isEqualTo(297);
+        assertThat(memo.stats().misses()).isEqualTo(3);
+        assertThat(memo.stats().hitRate()).isEqualTo(0.99);
+    }
+
+    @Test
+    @DisplayName("할인 설정이 바뀌면 기억해 둔 결과를 쓰지 않고 다시 계산한다.")
+    void invalidateOnSettingsChange() {
+        // given
+        DiscountSettingsHolder holder = new DiscountSettingsHolder();
+        RateDiscountPolicy rate = new RateDiscountPolicy();
+        rate.setDiscountSettings(holder);
+        MemoizingDiscountPolicy memo = new MemoizingDiscountPolicy(rate);
+        assertThat(memo.discount(vip, 10000)).isEqualTo(1000);
+
+        // when
+        holder.update(20, 1000);
+
+        // then
+        assertThat(memo.discount(vip, 10000)).isEqualTo(2000);
+        assertThat(memo.discount(vip, 10000)).isEqualTo(2000);
+        assertThat(memo.stats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("칸 수는 고정이고, 충돌하면 덮어써도 결과는 항상 원래 정책과 같다.")
+    void fixedCapacity() {
+        // given
+        RuleDiscountPolicy rules = new RuleDiscountPolicy(List.of(
+                DiscountRule.percent(Grade.VIP, 10).withPriceRange(0, 50_000),
+                DiscountRule.fixed(Grade.VIP, 7000),
+                DiscountRule.percent(Grade.BASIC, 3).withCap(500)));
+        MemoizingDiscountPolicy memo = new MemoizingDiscountPolicy(rules, 100);
+
+        // when, then
+        assertThat(memo.capacity()).isEqualTo(64);
+        for (int round = 0; round < 3; round++) {
+            for (int price = 0; price < 100_000; price += 37) {
+                assertThat(memo.discount(vip, price)).isEqualTo(rules.discount(vip, price));
+                assertThat(memo.discount(basic, price)).isEqualTo(rules.discount(basic, price));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 같은 칸을 두고 경쟁하고 중간에 invalidate 해도 항상 원래 정책과 같은 금액을 돌려준다.")
+    void concurrentCollisions() throws Exception {
+        // given
+        RuleDiscountPolicy rules = new RuleDiscountPolicy(List.of(
+                DiscountRule.percent(Grade.VIP, 10),
+                DiscountRule.percent(Grade.BASIC, 3)));
+        // 칸을 4개만 둬서 거의 모든 호출이 충돌하게 한다.
+        MemoizingDiscountPolicy memo = new MemoizingDiscountPolicy(rules, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        // when
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                int wrong = 0;
+                for (int i = 0; i < 200_000; i++) {
+                    int price = 1000 + ThreadLocalRandom.current().nextInt(6);
+                    Member member = ThreadLocalRandom.current().nextBoolean() ? vip : basic;
+                    if (memo.discount(member, price) != rules.discount(member, price)) {
+                        wrong++;
+                    }
+                }
+                return wrong;
+            }));
+        }
+        Future<?> invalidator = executor.submit(() -> {
+            for (int i = 0; i < 2000; i++) {
+                memo.invalidate();
+            }
+        });
+
+        // then
+        for (Future<Integer> future : futures) {
+            assertThat(future.get()).isEqualTo(0);
+        }
+        invalidator.get();
+        executor.shutdown();
+        assertThat(memo.stats().hits()).isGreaterThan(0);
+    }
+}
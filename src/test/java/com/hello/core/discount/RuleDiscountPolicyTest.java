@@ -0,0 +1,82 @@
+package com.hello.core.discount;
+
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RuleDiscountPolicyTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    Member basic = new Member(2L, "memberBASIC", Grade.BASIC);
+
+    @Test
+    @DisplayName("VIP 10% 규칙 하나는 RateDiscountPolicy 와 같은 할인을 준다.")
+    void sameAsRateDiscountPolicy() {
+        // given
+        RuleDiscountPolicy policy = new RuleDiscountPolicy(List.of(DiscountRule.percent(Grade.VIP, 10)));
+        RateDiscountPolicy rate = new RateDiscountPolicy();
+        Random random = new Random(20);
+
+        // when, then
+        for (int i = 0; i < 10_000; i++) {
+            int price = random.nextInt(1_000_000);
+            assertThat(policy.discount(vip, price)).isEqualTo(rate.discount(vip, price));
+            assertThat(policy.discount(basic, price)).isEqualTo(rate.discount(basic, price));
+        }
+    }
+
+    @Test
+    @DisplayName("가격 구간과 최대 할인액을 적용하고, 겹치는 규칙은 먼저 적은 규칙이 이긴다.")
+    void bandsAndCaps() {
+        // given
+        RuleDiscountPolicy policy = new RuleDiscountPolicy(List.of(
+                DiscountRule.percent(Grade.VIP, 20).withPriceRange(0, 50_000).withCap(5_000),
+                DiscountRule.percent(Grade.VIP, 10),
+                DiscountRule.fixed(null, 3_000).withPriceRange(100_000, Integer.MAX_VALUE)));
+
+        // when, then
+        assertThat(policy.discount(vip, 10_000)).isEqualTo(2_000);
+        assertThat(policy.discount(vip, 40_000)).isEqualTo(5_000);
+        assertThat(policy.discount(vip, 50_000)).isEqualTo(5_000);
+        assertThat(policy.discount(vip, 200_000)).isEqualTo(20_000);
+        assertThat(policy.discount(basic, 99_999)).isEqualTo(0);
+        assertThat(policy.discount(basic, 100_000)).isEqualTo(3_000);
+        assertThat(policy.discount(new Member(3L, "noGrade", null), 100_000)).isEqualTo(3_000);
+        assertThat(policy.discount(basic, Integer.MAX_VALUE)).isEqualTo(3_000);
+        assertThat(policy.bandCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("규칙 파일을 읽고, 형식이 틀린 줄은 줄 번호와 함께 알려준다.")
+    void load(@TempDir Path dir) throws IOException {
+        // given
+        Path rules = dir.resolve("discount-rules.csv");
+        Files.writeString(rules, """
+                # 등급, 최소 가격, 최대 가격, 종류, 값, 최대 할인액
+                VIP, 0, *, FIXED, 1000, *
+                """);
+        Path broken = dir.resolve("broken.csv");
+        Files.writeString(broken, "VIP, 0, *, FIXED, 1000, *\nVIP, 0, *, HALF, 50, *\n");
+
+        // when
+        RuleDiscountPolicy policy = RuleDiscountPolicy.load(rules);
+
+        // then
+        assertThat(policy.discount(vip, 10_000)).isEqualTo(new FixDiscountPolicy().discount(vip, 10_000));
+        assertThat(policy.discount(basic, 10_000)).isEqualTo(0);
+        assertThatThrownBy(() -> RuleDiscountPolicy.load(broken))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("2번째 줄");
+    }
+}
@@ -0,0 +1,96 @@
+package com.hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingMemberRepositoryTest {
+
+    LongKeyMemberRepository backing = new LongKeyMemberRepository();
+
+    @Test
+    @DisplayName("두 번째 조회부터는 캐시에서 찾는다.")
+    void readThrough() {
+        // given
+        CachingMemberRepository repository = new CachingMemberRepository(backing, 100);
+        backing.save(new Member(1L, "memberA", Grade.VIP));
+        // when
+        repository.findById(1L);
+        repository.findById(1L);
+        repository.findById(2L);
+        // then
+        CachingMemberRepository.CacheStats stats = repository.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(2);
+        assertThat(stats.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("save 하면 캐시 항목이 지워져서 다음 조회는 새 값을 본다.")
+    void invalidateOnSave() {
+        CachingMemberRepository repository = new CachingMemberRepository(backing, 100);
+        repository.save(new Member(1L, "before", Grade.BASIC));
+        assertThat(repository.findById(1L).getName()).isEqualTo("before");
+
+        repository.save(new Member(1L, "after", Grade.VIP));
+
+        assertThat(repository.findById(1L).getName()).isEqualTo("after");
+        assertThat(backing.findById(1L).getName()).isEqualTo("after");
+    }
+
+    @Test
+    @DisplayName("크기 제한을 넘지 않고, 한 번씩만 스쳐가는 조회가 자주 쓰는 회원을 밀어내지 못한다.")
+    void boundedAndFrequencyAware() {
+        // given
+        CachingMemberRepository repository = new CachingMemberRepository(backing, 100);
+        for (long id = 0; id < 10_000; id++) {
+            backing.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+        for (int round = 0; round < 10; round++) {
+            for (long hot = 0; hot < 50; hot++) {
+                repository.findById(hot);
+            }
+        }
+        // when
+        for (long cold = 1_000; cold < 10_000; cold++) {
+            repository.findById(cold);
+        }
+        long hitsBefore = repository.stats().hits();
+        for (long hot = 0; hot < 50; hot++) {
+            repository.findById(hot);
+        }
+        // then
+        assertThat(repository.stats().size()).isLessThanOrEqualTo(100);
+        assertThat(repository.stats().evictions()).isGreaterThan(0);
+        assertThat(repository.stats().hits() - hitsBefore).isGreaterThanOrEqualTo(45);
+    }
+
+    @Test
+    @DisplayName("조회 도중 다른 회원이 저장되어도 조회 결과는 캐시에 들어가고, 같은 회원이 저장되면 들어가지 않는다.")
+    void concurrentWriteToOtherMember() {
+        // given
+        backing.save(new Member(1L, "memberA", Grade.VIP));
+        backing.save(new Member(3L, "memberC", Grade.VIP));
+        CachingMemberRepository[] repository = new CachingMemberRepository[1];
+        // 원본 조회 중에 save 가 끼어드는 상황을 만든다.
+        LongKeyMemberRepository interleaving = new LongKeyMemberRepository() {
+            @Override
+            public Member findById(long memberId) {
+                Member found = backing.findById(memberId);
+                repository[0].save(new Member(memberId == 1L ? 2L : memberId, "writer", Grade.BASIC));
+                return found;
+            }
+        };
+        repository[0] = new CachingMemberRepository(interleaving, 100);
+
+        // when
+        repository[0].findById(1L);
+        repository[0].findById(3L);
+
+        // then
+        assertThat(repository[0].stats().size()).isEqualTo(1);
+        assertThat(repository[0].findById(1L).getName()).isEqualTo("memberA");
+        assertThat(repository[0].stats().hits()).isEqualTo(1);
+    }
+}
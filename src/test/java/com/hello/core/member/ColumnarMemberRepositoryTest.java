@@ -0,0 +1,57 @@
+package com.hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarMemberRepositoryTest {
+
+    ColumnarMemberRepository memberRepository = new ColumnarMemberRepository(4);
+
+    @Test
+    @DisplayName("컬럼에서 다시 만든 회원 뷰는 저장한 값과 같다.")
+    void saveAndView() {
+        // given
+        memberRepository.save(new Member(1L, "홍길동", Grade.VIP));
+        memberRepository.save(new Member(2L, null, null));
+        // when
+        Member findMember = memberRepository.findById(1L);
+        // then
+        assertThat(findMember.getId()).isEqualTo(1L);
+        assertThat(findMember.getName()).isEqualTo("홍길동");
+        assertThat(findMember.getGrade()).isEqualTo(Grade.VIP);
+        assertThat(memberRepository.findById(2L).getName()).isNull();
+        assertThat(memberRepository.findById(2L).getGrade()).isNull();
+        assertThat(memberRepository.findById(3L)).isNull();
+    }
+
+    @Test
+    @DisplayName("같은 id 로 저장하면 행을 덮어쓰고, 배열이 커져도 모두 찾을 수 있다.")
+    void overwriteAndGrow() {
+        for (long id = 0; id < 10_000; id++) {
+            memberRepository.save(new Member(id, "member" + (id % 10), Grade.BASIC));
+        }
+        memberRepository.save(new Member(5L, "renamed", Grade.VIP));
+
+        assertThat(memberRepository.size()).isEqualTo(10_000);
+        assertThat(memberRepository.findById(5L).getName()).isEqualTo("renamed");
+        assertThat(memberRepository.findById(9_999L).getName()).isEqualTo("member9");
+    }
+
+    @Test
+    @DisplayName("등급 스캔과 이름 prefix 조회")
+    void scans() {
+        memberRepository.saveAll(List.of(
+                new Member(1L, "kim", Grade.VIP),
+                new Member(2L, "kang", Grade.BASIC),
+                new Member(3L, "kim", Grade.BASIC),
+                new Member(4L, "lee", Grade.VIP)));
+
+        assertThat(memberRepository.findByGrade(Grade.VIP)).extracting("id").containsExactly(1L, 4L);
+        assertThat(memberRepository.findByNamePrefix("k")).extracting("id").containsExactly(2L, 1L, 3L);
+        assertThat(memberRepository.findAllById(List.of(4L, 9L)).get(1)).isNull();
+    }
+}
@@ -0,0 +1,117 @@
+package com.hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileMemberRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("다시 열면 로그를 재적용해서 회원이 복구된다.")
+    void recoverFromLog() {
+        try (FileMemberRepository repository = new FileMemberRepository(directory)) {
+            repository.save(new Member(1L, "memberA", Grade.VIP));
+            repository.save(new Member(2L, "memberB", Grade.BASIC));
+            repository.save(new Member(1L, "memberA2", Grade.BASIC));
+        }
+
+        try (FileMemberRepository repository = new FileMemberRepository(directory)) {
+            assertThat(repository.size()).isEqualTo(2);
+            assertThat(repository.findById(1L).getName()).isEqualTo("memberA2");
+            assertThat(repository.findById(1L).getGrade()).isEqualTo(Grade.BASIC);
+            assertThat(repository.findById(2L).getName()).isEqualTo("memberB");
+        }
+    }
+
+    @Test
+    @DisplayName("로그가 임계치를 넘으면 스냅샷으로 압축되고, 스냅샷 + 로그 꼬리로 복구된다.")
+    void recoverFromSnapshot() throws Exception {
+        try (FileMemberRepository repository = new FileMemberRepository(directory, 4 * 1024)) {
+            List<Member> members = new ArrayList<>();
+            for (long id = 0; id < 5000; id++) {
+                members.add(new Member(id, "member" + id, Grade.BASIC));
+            }
+            repository.saveAll(members);
+            repository.save(new Member(5000L, "tail", Grade.VIP));
+        }
+
+        assertThat(countFiles("snapshot-")).isGreaterThanOrEqualTo(1);
+
+        try (FileMemberRepository repository = new FileMemberRepository(directory)) {
+            assertThat(repository.size()).isEqualTo(5001);
+            assertThat(repository.findById(4999L).getName()).isEqualTo("member4999");
+            assertThat(repository.findById(5000L).getGrade()).isEqualTo(Grade.VIP);
+        }
+    }
+
+    @Test
+    @DisplayName("스냅샷 쓰기에 실패하면 횟수와 마지막 오류를 남기고, 로그로 그대로 복구된다.")
+    void snapshotFailure() throws Exception {
+        try (FileMemberRepository repository = new FileMemberRepository(directory)) {
+            // given
+            repository.save(new Member(1L, "memberA", Grade.VIP));
+            // 다음 스냅샷(2세대)의 임시 파일 자리에 디렉터리를 만들어 두면 파일을 열 수 없다.
+            Files.createDirectory(directory.resolve("snapshot-0000000000000002.dat.tmp"));
+
+            // when
+            repository.compact();
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (repository.snapshotFailures() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            repository.save(new Member(2L, "memberB", Grade.BASIC));
+
+            // then
+            assertThat(repository.snapshotFailures()).isEqualTo(1);
+            assertThat(repository.lastSnapshotFailure()).isInstanceOf(IOException.class);
+        }
+
+        try (FileMemberRepository repository = new FileMemberRepository(directory)) {
+            assertThat(repository.size()).isEqualTo(2);
+            assertThat(countFiles("snapshot-")).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("마지막 로그 끝의 잘린 레코드는 버리고 연다.")
+    void truncateTornTail() throws IOException {
+        try (FileMemberRepository repository = new FileMemberRepository(directory)) {
+            repository.save(new Member(1L, "memberA", Grade.VIP));
+        }
+        Path lastLog;
+        try (Stream<Path> files = Files.list(directory)) {
+            lastLog = files.filter(file -> file.getFileName().toString().startsWith("wal-"))
+                    .sorted()
+                    .reduce((first, second) -> second)
+                    .orElseThrow();
+        }
+        Files.write(lastLog, new byte[]{0, 0, 0, 20, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (FileMemberRepository repository = new FileMemberRepository(directory)) {
+            assertThat(repository.findById(1L).getName()).isEqualTo("memberA");
+            repository.save(new Member(2L, "memberB", Grade.BASIC));
+        }
+        try (FileMemberRepository repository = new FileMemberRepository(directory)) {
+            assertThat(repository.size()).isEqualTo(2);
+        }
+    }
+
+    private long countFiles(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+}
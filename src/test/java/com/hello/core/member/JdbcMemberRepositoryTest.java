@@ -0,0 +1,75 @@
+package com.hello.core.member;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcMemberRepositoryTest {
+
+    HikariDataSource dataSource = JdbcMemberRepository.pooledDataSource(
+            "jdbc:h2:mem:" + getClass().getSimpleName() + System.nanoTime() + ";DB_CLOSE_DELAY=-1", 2);
+    JdbcMemberRepository memberRepository = new JdbcMemberRepository(dataSource, 100);
+
+    @AfterEach
+    void afterEach() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("같은 id 로 다시 저장하면 덮어쓴다.")
+    void saveAndFind() {
+        // given
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+
+        // when
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+
+        // then
+        assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+        assertThat(memberRepository.findById(2L)).isNull();
+        assertThat(memberRepository.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("배치로 저장한 회원을 IN 묶음 조회로 요청 순서대로 돌려준다.")
+    void saveAllAndFindAllById() {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (long id = 0; id < 1000; id++) {
+            members.add(new Member(id, "member" + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        memberRepository.saveAll(members);
+
+        // when
+        List<Member> found = memberRepository.findAllById(Arrays.asList(999L, 5000L, 0L));
+
+        // then
+        assertThat(memberRepository.size()).isEqualTo(1000);
+        assertThat(found.get(0).getName()).isEqualTo("member999");
+        assertThat(found.get(1)).isNull();
+        assertThat(found.get(2).getName()).isEqualTo("member0");
+        assertThat(memberRepository.findByGrade(Grade.VIP)).hasSize(500);
+    }
+
+    @Test
+    @DisplayName("이름 prefix 조회는 LIKE 특수문자를 그대로 비교한다.")
+    void findByNamePrefix() {
+        // given
+        memberRepository.save(new Member(1L, "a_b", Grade.BASIC));
+        memberRepository.save(new Member(2L, "axb", Grade.BASIC));
+
+        // when
+        List<Member> found = memberRepository.findByNamePrefix("a_");
+
+        // then
+        assertThat(found).hasSize(1);
+        assertThat(found.get(0).getId()).isEqualTo(1L);
+    }
+}
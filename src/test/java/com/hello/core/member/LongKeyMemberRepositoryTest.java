@@ -0,0 +1,175 @@
+package com.hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongKeyMemberRepositoryTest {
+
+    LongKeyMemberRepository memberRepository = new LongKeyMemberRepository();
+
+    @Test
+    @DisplayName("저장한 회원을 Long, long 어느 쪽으로도 조회할 수 있다.")
+    void saveAndFind() {
+        // given
+        Member member = new Member(1000L, "memberA", Grade.VIP);
+        // when
+        memberRepository.save(member);
+        // then
+        assertThat(memberRepository.findById(Long.valueOf(1000L))).isSameAs(member);
+        assertThat(memberRepository.findById(1000L)).isSameAs(member);
+        assertThat(memberRepository.findById(1001L)).isNull();
+    }
+
+    @Test
+    @DisplayName("같은 id로 저장하면 덮어쓴다.")
+    void overwrite() {
+        memberRepository.save(new Member(1L, "before", Grade.BASIC));
+        memberRepository.save(new Member(1L, "after", Grade.VIP));
+
+        assertThat(memberRepository.findById(1L).getName()).isEqualTo("after");
+        assertThat(memberRepository.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("리사이즈가 여러 번 일어나도 모든 회원을 찾을 수 있다.")
+    void resize() {
+        for (long id = -5000; id < 5000; id++) {
+            memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+
+        assertThat(memberRepository.size()).isEqualTo(10000);
+        for (long id = -5000; id < 5000; id++) {
+            assertThat(memberRepository.findById(id).getId()).isEqualTo(id);
+        }
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 저장해도 누락이 없다.")
+    void concurrentSave() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long base = t * 100_000L;
+            futures.add(executor.submit(() -> {
+                for (long id = base; id < base + 20_000; id++) {
+                    memberRepository.save(new Member(id, "member", Grade.BASIC));
+                    assertThat(memberRepository.findById(id)).isNotNull();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(memberRepository.size()).isEqualTo(8 * 20_000);
+    }
+
+    @Test
+    @DisplayName("대량 저장 후 입력 순서대로 조회된다.")
+    void saveAllAndFindAll() {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (long id = 0; id < 1000; id++) {
+            members.add(new Member(id, "member" + id, Grade.BASIC));
+        }
+        // when
+        memberRepository.saveAll(members);
+        List<Member> findMembers = memberRepository.findAllById(List.of(999L, 5000L, 0L));
+        // then
+        assertThat(memberRepository.size()).isEqualTo(1000);
+        assertThat(findMembers).containsExactly(members.get(999), null, members.get(0));
+    }
+
+    @Test
+    @DisplayName("등급이나 이름이 바뀌면 보조 인덱스도 같이 바뀐다.")
+    void secondaryIndex() {
+        // given
+        memberRepository.save(new Member(1L, "kim", Grade.VIP));
+        memberRepository.save(new Member(2L, "kang", Grade.BASIC));
+        memberRepository.save(new Member(3L, "lee", Grade.VIP));
+        // when
+        memberRepository.save(new Member(3L, "kwon", Grade.BASIC));
+        // then
+        assertThat(memberRepository.findByGrade(Grade.VIP)).extracting("id").containsExactly(1L);
+        assertThat(memberRepository.findByGrade(Grade.BASIC)).extracting("id").containsExactlyInAnyOrder(2L, 3L);
+        assertThat(memberRepository.findByNamePrefix("k")).extracting("name").containsExactly("kang", "kim", "kwon");
+        assertThat(memberRepository.findByNamePrefix("lee")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("조회한 회원 객체를 고쳐서 그대로 저장해도 보조 인덱스가 바뀐다.")
+    void mutateThenSave() {
+        // given
+        memberRepository.save(new Member(1L, "kim", Grade.BASIC));
+        memberRepository.saveAll(List.of(new Member(2L, "kang", Grade.BASIC)));
+        // when
+        Member first = memberRepository.findById(1L);
+        first.setGrade(Grade.VIP);
+        first.setName("lee");
+        memberRepository.save(first);
+        Member second = memberRepository.findById(2L);
+        second.setGrade(Grade.VIP);
+        memberRepository.saveAll(List.of(second));
+        // then
+        assertThat(memberRepository.findByGrade(Grade.VIP)).extracting("id").containsExactlyInAnyOrder(1L, 2L);
+        assertThat(memberRepository.findByGrade(Grade.BASIC)).isEmpty();
+        assertThat(memberRepository.findByNamePrefix("lee")).extracting("id").containsExactly(1L);
+        assertThat(memberRepository.findByNamePrefix("kim")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("같은 회원의 등급을 여러 스레드가 동시에 바꿔도 등급 인덱스에서 사라지지 않는다.")
+    void concurrentGradeChange() throws Exception {
+        // given
+        memberRepository.save(new Member(7L, "flip", Grade.BASIC));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int t = 0; t < 4; t++) {
+            Grade grade = t % 2 == 0 ? Grade.VIP : Grade.BASIC;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    memberRepository.save(new Member(7L, "flip", grade));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        Grade last = memberRepository.findById(7L).getGrade();
+        assertThat(memberRepository.findByGrade(last)).extracting("id").containsExactly(7L);
+    }
+
+    @Test
+    @DisplayName("forEach 는 복사 없이 모든 회원을 훑고, 순회 중에 저장해도 멈추지 않는다.")
+    void forEachInPlace() {
+        // given
+        for (long id = 0; id < 1000; id++) {
+            memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+        long[] visited = new long[1];
+
+        // when
+        memberRepository.forEach(member -> {
+            visited[0]++;
+            memberRepository.save(new Member(member.getId(), member.getName(), Grade.VIP));
+        });
+
+        // then
+        assertThat(visited[0]).isGreaterThanOrEqualTo(1000);
+        assertThat(memberRepository.findByGrade(Grade.VIP)).hasSize(1000);
+    }
+}
@@ -0,0 +1,67 @@
+package com.hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberChangeStreamTest {
+
+    @Test
+    @DisplayName("save 한 회원이 순서대로 구독자에게 전달된다.")
+    void deliverChanges() throws InterruptedException {
+        try (MemberChangeStream changes = new MemberChangeStream()) {
+            // given
+            List<MemberValue> received = new CopyOnWriteArrayList<>();
+            CountDownLatch latch = new CountDownLatch(3);
+            changes.subscribe("test", (event, endOfBatch) -> {
+                received.add(event.toMemberValue());
+                latch.countDown();
+            });
+            MemberRepository memberRepository = new ChangeCapturingMemberRepository(new LongKeyMemberRepository(), changes);
+
+            // when
+            memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+            memberRepository.saveAll(List.of(new Member(2L, "memberB", Grade.VIP), new Member(1L, "memberA", Grade.VIP)));
+
+            // then
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(received).containsExactly(
+                    new MemberValue(1L, "memberA", Grade.BASIC),
+                    new MemberValue(2L, "memberB", Grade.VIP),
+                    new MemberValue(1L, "memberA", Grade.VIP));
+            assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+        }
+    }
+
+    @Test
+    @DisplayName("느린 구독자를 기다리지 않고, 덮어써진 이벤트는 lost 로 센다.")
+    void slowSubscriberLosesEvents() throws InterruptedException {
+        try (MemberChangeStream changes = new MemberChangeStream(16)) {
+            // given
+            CountDownLatch blocked = new CountDownLatch(1);
+            MemberChangeStream.Subscription subscription = changes.subscribe("slow", (event, endOfBatch) -> blocked.await());
+
+            // when
+            for (long id = 1; id <= 1000; id++) {
+                changes.publish(id, "member" + id, Grade.BASIC);
+            }
+            blocked.countDown();
+
+            // then
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (subscription.lag() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            MemberChangeStream.SubscriptionStats stats = subscription.stats();
+            assertThat(stats.lag()).isEqualTo(0);
+            assertThat(stats.lost()).isGreaterThan(0);
+            assertThat(stats.processed() + stats.lost()).isEqualTo(1000);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.assertj.core.api.Assertions;
 
+import java.util.List;
+
 public class MemberServiceTests {
 
     MemberService memberService;
@@ -27,4 +29,33 @@ public class MemberServiceTests {
         // then
         Assertions.assertThat(member).isEqualTo(findMember);
     }
+
+    @Test
+    void joinBulk() {
+        // given
+        Member memberA = new Member(11L, "memberA", Grade.VIP);
+        Member memberB = new Member(12L, "memberB", Grade.BASIC);
+
+        // when
+        memberService.join(List.of(memberA, memberB));
+        List<Member> findMembers = memberService.findMembers(List.of(12L, 999L, 11L));
+
+        // then
+        Assertions.assertThat(findMembers).containsExactly(memberB, null, memberA);
+    }
+
+    @Test
+    void findByIndex() {
+        // given
+        memberService.join(new Member(21L, "indexVip", Grade.VIP));
+        memberService.join(new Member(22L, "indexBasic", Grade.BASIC));
+
+        // when
+        List<Member> vipMembers = memberService.findMembersByGrade(Grade.VIP);
+        List<Member> prefixMembers = memberService.findMembersByNamePrefix("index");
+
+        // then
+        Assertions.assertThat(vipMembers).extracting("id").contains(21L).doesNotContain(22L);
+        Assertions.assertThat(prefixMembers).extracting("name").containsExactly("indexBasic", "indexVip");
+    }
 }
@@ -0,0 +1,108 @@
+package com.hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberTransferTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("바이너리로 내보낸 회원을 다른 저장소로 그대로 들여온다.")
+    void binaryRoundTrip() throws IOException {
+        roundTrip(MemberFormat.BINARY);
+    }
+
+    @Test
+    @DisplayName("NDJSON 으로 내보낸 회원을 다른 저장소로 그대로 들여온다.")
+    void ndjsonRoundTrip() throws IOException {
+        roundTrip(MemberFormat.NDJSON);
+    }
+
+    @Test
+    @DisplayName("NDJSON 은 이스케이프, null, 모르는 키를 처리한다.")
+    void ndjsonParsing() throws IOException {
+        // given
+        Path file = directory.resolve("members.ndjson");
+        Files.writeString(file, """
+                {"id":1,"name":"따옴표\\"와 \\\\ 그리고 \\u0041","grade":"VIP"}
+
+                { "id" : 2 , "name" : null , "grade" : null , "extra" : true }
+                {"grade":"BASIC","id":3,"name":"줄\\n바꿈"}""", StandardCharsets.UTF_8);
+        LongKeyMemberRepository repository = new LongKeyMemberRepository();
+
+        // when
+        long imported;
+        try (FileChannel channel = FileChannel.open(file)) {
+            imported = new MemberTransfer(repository).importFrom(channel, MemberFormat.NDJSON);
+        }
+
+        // then
+        assertThat(imported).isEqualTo(3);
+        assertThat(repository.findById(1L).getName()).isEqualTo("따옴표\"와 \\ 그리고 A");
+        assertThat(repository.findById(2L).getName()).isNull();
+        assertThat(repository.findById(2L).getGrade()).isNull();
+        assertThat(repository.findById(3L).getName()).isEqualTo("줄\n바꿈");
+    }
+
+    @Test
+    @DisplayName("형식이 맞지 않는 줄은 줄 번호와 함께 IOException 이 난다.")
+    void ndjsonError() throws IOException {
+        // given
+        Path file = directory.resolve("broken.ndjson");
+        Files.writeString(file, "{\"id\":1}\n{\"id\":\"x\"}\n");
+
+        // when, then
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertThatThrownBy(() -> new MemberTransfer(new LongKeyMemberRepository()).importFrom(channel, MemberFormat.NDJSON))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("2번째 줄");
+        }
+    }
+
+    private void roundTrip(MemberFormat format) throws IOException {
+        // given
+        LongKeyMemberRepository source = new LongKeyMemberRepository();
+        List<Member> members = new ArrayList<>();
+        for (long id = 0; id < 30_000; id++) {
+            members.add(new Member(id, id % 100 == 0 ? null : "회원" + id, id % 3 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        source.saveAll(members);
+        Path file = directory.resolve("members." + format);
+
+        // when
+        long exported;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            exported = new MemberTransfer(source).exportTo(channel, format);
+        }
+        LongKeyMemberRepository target = new LongKeyMemberRepository();
+        long imported;
+        try (FileChannel channel = FileChannel.open(file)) {
+            imported = new MemberTransfer(target, 1000).importFrom(channel, format);
+        }
+
+        // then
+        assertThat(exported).isEqualTo(30_000);
+        assertThat(imported).isEqualTo(30_000);
+        assertThat(target.size()).isEqualTo(30_000);
+        for (Member member : members) {
+            Member found = target.findById(member.getId());
+            assertThat(found.getName()).isEqualTo(member.getName());
+            assertThat(found.getGrade()).isEqualTo(member.getGrade());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MvccMemberRepositoryTest {
+
+    MvccMemberRepository memberRepository = new MvccMemberRepository();
+
+    @Test
+    @DisplayName("스냅샷은 연 뒤의 save 를 보지 않는다.")
+    void snapshotIsolation() {
+        // given
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+
+        try (MvccMemberRepository.Snapshot snapshot = memberRepository.openSnapshot()) {
+            // when
+            memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+            memberRepository.save(new Member(2L, "memberB", Grade.VIP));
+
+            // then
+            assertThat(snapshot.findValue(1L).grade()).isEqualTo(Grade.BASIC);
+            assertThat(snapshot.findValue(2L)).isNull();
+            assertThat(snapshot.size()).isEqualTo(1);
+            assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+        }
+    }
+
+    @Test
+    @DisplayName("saveAll 은 한 버전으로 커밋되어 스냅샷에서 전부 보이거나 전혀 안 보인다.")
+    void saveAllIsAtomic() {
+        // given
+        MvccMemberRepository.Snapshot before = memberRepository.openSnapshot();
+
+        // when
+        memberRepository.saveAll(List.of(
+                new Member(1L, "memberA", Grade.VIP),
+                new Member(2L, "memberB", Grade.VIP)));
+
+        // then
+        try (before; MvccMemberRepository.Snapshot after = memberRepository.openSnapshot()) {
+            assertThat(before.size()).isEqualTo(0);
+            assertThat(after.findByGrade(Grade.VIP)).hasSize(2);
+        }
+    }
+
+    @Test
+    @DisplayName("돌려받은 Member 를 고쳐도 저장된 값은 바뀌지 않는다.")
+    void returnsCopies() {
+        // given
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+
+        // when
+        memberRepository.findById(1L).setGrade(Grade.VIP);
+
+        // then
+        assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.BASIC);
+    }
+
+    @Test
+    @DisplayName("스냅샷이 닫히면 아무도 볼 수 없는 옛 버전이 정리된다.")
+    void pruneOldVersions() {
+        // given
+        MvccMemberRepository.Snapshot snapshot = memberRepository.openSnapshot();
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member(1L, "member" + i, Grade.BASIC));
+        }
+        assertThat(memberRepository.versionCount(1L)).isEqualTo(10);
+
+        // when
+        snapshot.close();
+
+        // then
+        assertThat(memberRepository.versionCount(1L)).isEqualTo(1);
+        assertThat(memberRepository.findById(1L).getName()).isEqualTo("member9");
+    }
+
+    @Test
+    @DisplayName("열린 스냅샷이 없으면 덮어쓸 때마다 옛 버전을 바로 버린다.")
+    void noSnapshotKeepsSingleVersion() {
+        // when
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member(2L, "member" + i, Grade.BASIC));
+        }
+        memberRepository.saveAll(List.of(new Member(2L, "memberLast", Grade.VIP)));
+
+        // then
+        assertThat(memberRepository.versionCount(2L)).isEqualTo(1);
+        assertThat(memberRepository.findById(2L).getName()).isEqualTo("memberLast");
+    }
+}
@@ -0,0 +1,71 @@
+package com.hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionedMemberRepositoryTest {
+
+    @Test
+    @DisplayName("나머지 라우터는 id 로 샤드를 정하고, 샤드별 통계가 쌓인다.")
+    void moduloRouting() {
+        // given
+        PartitionedMemberRepository repository =
+                PartitionedMemberRepository.create(new ModuloShardRouter(4), LongKeyMemberRepository::new);
+        // when
+        for (long id = 0; id < 8; id++) {
+            repository.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+        repository.findById(5L);
+        repository.findById(9L);
+        // then
+        assertThat(repository.shard(1).findById(5L)).isNotNull();
+        assertThat(repository.shard(0).findById(5L)).isNull();
+        assertThat(repository.stats().get(1)).isEqualTo(new PartitionedMemberRepository.ShardStats(1, 2, 2, 1));
+    }
+
+    @Test
+    @DisplayName("대량 조회는 샤드가 달라도 입력 순서를 유지하고, 인덱스 조회는 모든 샤드를 합친다.")
+    void bulkAndIndex() {
+        // given
+        PartitionedMemberRepository repository =
+                PartitionedMemberRepository.create(new ConsistentHashShardRouter(3), LongKeyMemberRepository::new);
+        List<Member> members = new ArrayList<>();
+        for (long id = 0; id < 100; id++) {
+            members.add(new Member(id, "name" + (char) ('a' + id % 26) + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        // when
+        repository.saveAll(members);
+        // then
+        assertThat(repository.findAllById(List.of(42L, 1000L, 7L))).containsExactly(members.get(42), null, members.get(7));
+        assertThat(repository.findByGrade(Grade.VIP)).hasSize(50);
+        assertThat(repository.findByNamePrefix("namea")).extracting("name").containsExactly("namea0", "namea26", "namea52", "namea78");
+    }
+
+    @Test
+    @DisplayName("일관된 해시 라우터는 샤드가 하나 늘어도 일부 회원만 옮긴다.")
+    void consistentHashMovesFewKeys() {
+        ConsistentHashShardRouter before = new ConsistentHashShardRouter(10);
+        ConsistentHashShardRouter after = new ConsistentHashShardRouter(11);
+
+        int moved = 0;
+        int[] perShard = new int[10];
+        for (long id = 0; id < 100_000; id++) {
+            int shard = before.shardFor(id);
+            perShard[shard]++;
+            if (shard != after.shardFor(id)) {
+                moved++;
+            }
+        }
+
+        // 이론상 1/11(약 9%)
+        assertThat(moved).isLessThan(15_000);
+        for (int count : perShard) {
+            assertThat(count).isBetween(5_000, 15_000);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.hello.core.order;
+
+import com.hello.core.AppConfig;
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncOrderServiceTest {
+
+    OrderExecutor orderExecutor = new OrderExecutor(1, 10, 1000);
+
+    @AfterEach
+    void afterEach() {
+        orderExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("가상 스레드에서 주문을 만들고 결과를 future 로 받는다.")
+    void createOrderAsync() throws Exception {
+        // given
+        AppConfig appConfig = new AppConfig();
+        appConfig.memberService().join(new Member(1L, "memberA", Grade.VIP));
+        AsyncOrderService asyncOrderService = new AsyncOrderService(appConfig.orderService(), orderExecutor);
+
+        // when
+        Order order = asyncOrderService.createOrderAsync(1L, "itemA", 10000).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(order.getDiscountPrice()).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("동시 진행 한도를 넘으면 실패한 future 를 돌려준다.")
+    void rejectOverLimit() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> running = orderExecutor.submit(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        });
+
+        // when
+        CompletableFuture<Integer> rejected = orderExecutor.submit(() -> 2);
+
+        // then
+        assertThat(orderExecutor.inFlight()).isEqualTo(1);
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("future 를 취소해도 작업이 끝날 때까지 자리를 반납하지 않는다.")
+    void cancelKeepsPermitUntilTaskEnds() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> running = orderExecutor.submit(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        });
+        started.await();
+
+        // when
+        running.cancel(true);
+        CompletableFuture<Integer> rejected = orderExecutor.submit(() -> 2);
+
+        // then
+        assertThat(orderExecutor.inFlight()).isEqualTo(1);
+        assertThat(rejected.isCompletedExceptionally()).isTrue();
+        release.countDown();
+        while (orderExecutor.inFlight() > 0) {
+            Thread.sleep(1);
+        }
+        assertThat(orderExecutor.submit(() -> 3).get(5, TimeUnit.SECONDS)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,195 @@
+package com.hello.core.order;
+
+import com.hello.core.AppConfig;
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+import com.hello.core.member.MemberRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GradeLaneSchedulerTest {
+
+    static final long VIP_MEMBER = 19_001L;
+    static final long BASIC_MEMBER = 19_002L;
+
+    MemberRepository memberRepository = new AppConfig().memberRepository();
+    CountDownLatch release = new CountDownLatch(1);
+    RecordingOrderService orderService = new RecordingOrderService(release);
+
+    {
+        memberRepository.save(new Member(VIP_MEMBER, "vip", Grade.VIP));
+        memberRepository.save(new Member(BASIC_MEMBER, "basic", Grade.BASIC));
+    }
+
+    @Test
+    @DisplayName("BASIC 주문이 밀려 있어도 뒤에 들어온 VIP 주문이 먼저 처리된다.")
+    void vipOvertakesBasicBacklog() throws Exception {
+        // given
+        GradeLaneScheduler scheduler = new GradeLaneScheduler(orderService, memberRepository, 1, Map.of(
+                Grade.VIP, new GradeLaneScheduler.LaneConfig(8, 100, Duration.ofSeconds(10)),
+                Grade.BASIC, new GradeLaneScheduler.LaneConfig(1, 100, Duration.ofSeconds(10))));
+        blockWorker(scheduler, BASIC_MEMBER, Grade.BASIC);
+
+        // when
+        List<CompletableFuture<Order>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(scheduler.submit(BASIC_MEMBER, "basic", 1000));
+        }
+        for (int i = 0; i < 4; i++) {
+            futures.add(scheduler.submit(VIP_MEMBER, "vip", 1000));
+        }
+        release.countDown();
+        for (CompletableFuture<Order> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        scheduler.close();
+
+        // then
+        // 막혀 있던 첫 주문 다음에는 VIP 4건이 한 묶음으로 처리된다.
+        assertThat(orderService.processed.subList(1, 5)).containsExactly("vip", "vip", "vip", "vip");
+        Map<Grade, GradeLaneScheduler.LaneStats> stats = scheduler.stats();
+        assertThat(stats.get(Grade.VIP).completed()).isEqualTo(4);
+        assertThat(stats.get(Grade.BASIC).completed()).isEqualTo(21);
+        assertThat(stats.get(Grade.BASIC).depth()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("lane 의 지연 목표보다 오래 기다린 주문은 처리하지 않고 실패시킨다.")
+    void expireOverdueOrders() throws Exception {
+        // given
+        GradeLaneScheduler scheduler = new GradeLaneScheduler(orderService, memberRepository, 1, Map.of(
+                Grade.VIP, new GradeLaneScheduler.LaneConfig(8, 100, Duration.ofSeconds(10)),
+                Grade.BASIC, new GradeLaneScheduler.LaneConfig(1, 100, Duration.ofMillis(1))));
+        // 막는 주문 자체가 지연 목표를 넘기지 않게 VIP 로 막는다.
+        blockWorker(scheduler, VIP_MEMBER, Grade.VIP);
+        CompletableFuture<Order> basic = scheduler.submit(BASIC_MEMBER, "basic", 1000);
+        CompletableFuture<Order> vip = scheduler.submit(VIP_MEMBER, "vip", 1000);
+
+        // when
+        Thread.sleep(20);
+        release.countDown();
+
+        // then
+        assertThat(vip.get(5, TimeUnit.SECONDS).getItemName()).isEqualTo("vip");
+        assertThatThrownBy(() -> basic.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        scheduler.close();
+        assertThat(scheduler.stats().get(Grade.BASIC).expired()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("저장 실패로 묶음이 실패하면 한 건씩 다시 처리하지 않고 묶음의 주문을 모두 실패시킨다.")
+    void failBatchOnStoreError() throws Exception {
+        // given
+        FailingOrderService failing = new FailingOrderService(release);
+        GradeLaneScheduler scheduler = new GradeLaneScheduler(failing, memberRepository, 1, Map.of(
+                Grade.VIP, new GradeLaneScheduler.LaneConfig(8, 100, Duration.ofSeconds(10)),
+                Grade.BASIC, new GradeLaneScheduler.LaneConfig(1, 100, Duration.ofSeconds(10))));
+        // 한 묶음으로 꺼내지도록 weight 가 큰 VIP lane 에 넣는다.
+        blockWorker(scheduler, BASIC_MEMBER, Grade.BASIC);
+
+        // when
+        List<CompletableFuture<Order>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(scheduler.submit(VIP_MEMBER, "vip", 1000));
+        }
+        release.countDown();
+
+        // then
+        for (CompletableFuture<Order> future : futures) {
+            assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+        scheduler.close();
+        assertThat(failing.processed).containsExactly("blocker");
+        assertThat(scheduler.stats().get(Grade.VIP).completed()).isEqualTo(5);
+    }
+
+    // 작업 스레드가 첫 주문을 꺼내서 release 전까지 붙잡혀 있게 만든다.
+    private void blockWorker(GradeLaneScheduler scheduler, long memberId, Grade grade) throws InterruptedException {
+        scheduler.submit(memberId, "blocker", 1000);
+        while (scheduler.stats().get(grade).depth() > 0) {
+            Thread.sleep(1);
+        }
+    }
+
+    // 처리 순서를 기록하고, 첫 호출은 release 전까지 막는다.
+    static class RecordingOrderService implements OrderService {
+        final List<String> processed = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+
+        RecordingOrderService(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public Order createOrder(Long memberId, String itemName, int itemPrice) {
+            return createOrder(memberId.longValue(), itemName, itemPrice);
+        }
+
+        @Override
+        public Order createOrder(long memberId, String itemName, int itemPrice) {
+            await();
+            processed.add(itemName);
+            return new Order(memberId, itemName, itemPrice, 0);
+        }
+
+        @Override
+        public OrderBatch createOrders(List<OrderRequest> requests) {
+            await();
+            int size = requests.size();
+            long[] memberIds = new long[size];
+            String[] itemNames = new String[size];
+            int[] itemPrices = new int[size];
+            for (int i = 0; i < size; i++) {
+                memberIds[i] = requests.get(i).memberId();
+                itemNames[i] = requests.get(i).itemName();
+                itemPrices[i] = requests.get(i).itemPrice();
+                processed.add(itemNames[i]);
+            }
+            return new OrderBatch(memberIds, itemNames, itemPrices, new int[size]);
+        }
+
+        @Override
+        public PriceQuote quote(long memberId, int itemPrice, PriceQuote out) {
+            throw new UnsupportedOperationException();
+        }
+
+        private void await() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // 묶음 처리는 항상 저장 실패로 끝난다.
+    static class FailingOrderService extends RecordingOrderService {
+
+        FailingOrderService(CountDownLatch release) {
+            super(release);
+        }
+
+        @Override
+        public OrderBatch createOrders(List<OrderRequest> requests) {
+            throw new IllegalStateException("주문 저장 실패");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.hello.core.order;
+
+import com.hello.core.AppConfig;
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotentOrderServiceTest {
+
+    SegmentedOrderRepositoryTest.ManualClock clock = new SegmentedOrderRepositoryTest.ManualClock();
+    RequestIdCache<CompletableFuture<Order>> requests = new RequestIdCache<>(1024, Duration.ofSeconds(60), clock);
+
+    @Test
+    @DisplayName("같은 요청 id 로 다시 주문하면 처음 만든 주문을 돌려준다.")
+    void sameRequestIdReturnsOriginalOrder() {
+        // given
+        AppConfig appConfig = new AppConfig();
+        appConfig.memberService().join(new Member(1L, "memberA", Grade.VIP));
+        IdempotentOrderService service = new IdempotentOrderService(appConfig.orderService(), requests);
+        Order first = service.createOrder("req-1", 1L, "itemA", 10000);
+
+        // when
+        Order retried = service.createOrder("req-1", 1L, "itemA", 10000);
+        Order other = service.createOrder("req-2", 1L, "itemA", 10000);
+
+        // then
+        assertThat(retried).isSameAs(first);
+        assertThat(other).isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("ttl 이 지난 요청 id 는 새 주문으로 처리한다.")
+    void expiredRequestId() {
+        // given
+        AppConfig appConfig = new AppConfig();
+        appConfig.memberService().join(new Member(1L, "memberA", Grade.VIP));
+        IdempotentOrderService service = new IdempotentOrderService(appConfig.orderService(), requests);
+        Order first = service.createOrder("req-1", 1L, "itemA", 10000);
+
+        // when
+        clock.millis += Duration.ofSeconds(61).toMillis();
+        Order later = service.createOrder("req-1", 1L, "itemA", 10000);
+
+        // then
+        assertThat(later).isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("주문이 실패한 요청 id 는 기억하지 않아서 재시도할 수 있다.")
+    void failedRequestCanBeRetried() {
+        // given
+        AppConfig appConfig = new AppConfig();
+        IdempotentOrderService service = new IdempotentOrderService(appConfig.orderService(), requests);
+        assertThatThrownBy(() -> service.createOrder("req-1", 16_001L, "itemA", 10000))
+                .isInstanceOf(RuntimeException.class);
+
+        // when
+        appConfig.memberService().join(new Member(16_001L, "memberB", Grade.VIP));
+        Order order = service.createOrder("req-1", 16_001L, "itemA", 10000);
+
+        // then
+        assertThat(order.getDiscountPrice()).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("주문 중 Error 가 나도 요청 id 를 정리해서 재시도가 멈추지 않는다.")
+    void errorRequestCanBeRetried() {
+        // given
+        AppConfig appConfig = new AppConfig();
+        appConfig.memberService().join(new Member(16_002L, "memberC", Grade.VIP));
+        OrderService failing = new OrderIngestionQueueTest.SlowOrderService(appConfig.orderService(), new CountDownLatch(0)) {
+            @Override
+            public Order createOrder(long memberId, String itemName, int itemPrice) {
+                throw new AssertionError("주문 처리 중 오류");
+            }
+        };
+        IdempotentOrderService broken = new IdempotentOrderService(failing, requests);
+        assertThatThrownBy(() -> broken.createOrder("req-1", 16_002L, "itemA", 10000))
+                .isInstanceOf(AssertionError.class);
+
+        // when
+        IdempotentOrderService service = new IdempotentOrderService(appConfig.orderService(), requests);
+        Order order = service.createOrder("req-1", 16_002L, "itemA", 10000);
+
+        // then
+        assertThat(order.getDiscountPrice()).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("칸이 가득 차도 캐시 크기는 늘지 않고 오래된 항목을 밀어낸다.")
+    void boundedCapacity() {
+        // given
+        RequestIdCache<String> cache = new RequestIdCache<>(16, Duration.ofSeconds(60), clock);
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            clock.millis++;
+            cache.putIfAbsent("req-" + i, "order-" + i);
+        }
+
+        // then
+        assertThat(cache.capacity()).isEqualTo(16);
+        assertThat(cache.get("req-999")).isEqualTo("order-999");
+        assertThat(cache.stats().evictions()).isGreaterThanOrEqualTo(1000 - 16);
+    }
+}
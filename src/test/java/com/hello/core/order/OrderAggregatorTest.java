@@ -0,0 +1,97 @@
+package com.hello.core.order;
+
+import com.hello.core.AppConfig;
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderAggregatorTest {
+
+    OrderAggregator aggregator = new OrderAggregator();
+
+    @Test
+    @DisplayName("주문을 만들면 회원별, 등급별 합계가 갱신된다.")
+    void aggregateCreatedOrders() {
+        // given
+        AppConfig appConfig = new AppConfig();
+        appConfig.memberService().join(new Member(17_001L, "memberA", Grade.VIP));
+        appConfig.memberService().join(new Member(17_002L, "memberB", Grade.BASIC));
+        OrderServiceImpl orderService = (OrderServiceImpl) appConfig.orderService();
+        orderService.setOrderAggregator(aggregator);
+
+        // when
+        orderService.createOrder(17_001L, "itemA", 10000);
+        orderService.createOrder(17_001L, "itemB", 20000);
+        orderService.createOrders(List.of(new OrderRequest(17_002L, "itemC", 5000)));
+
+        // then
+        assertThat(aggregator.totalsOf(17_001L)).isEqualTo(new OrderTotals(2, 30000, 3000));
+        assertThat(aggregator.totalsOf(17_001L).net()).isEqualTo(27000);
+        assertThat(aggregator.totalsOf(Grade.BASIC)).isEqualTo(new OrderTotals(1, 5000, 0));
+        assertThat(aggregator.total()).isEqualTo(new OrderTotals(3, 35000, 3000));
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 더해도 합계가 정확하고, 읽는 도중에도 건수와 금액이 서로 맞는다.")
+    void concurrentRecord() throws Exception {
+        // given
+        int threads = 8;
+        int perThread = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+
+        // when
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    aggregator.record(1L, Grade.VIP, 100, 10);
+                }
+            }));
+        }
+        Future<Boolean> reader = executor.submit(() -> {
+            boolean consistent = true;
+            for (int i = 0; i < 10_000; i++) {
+                OrderTotals totals = aggregator.totalsOf(1L);
+                consistent &= totals.gross() == totals.count() * 100 && totals.discount() == totals.count() * 10;
+            }
+            return consistent;
+        });
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        boolean consistent = reader.get();
+        executor.shutdown();
+
+        // then
+        assertThat(consistent).isTrue();
+        assertThat(aggregator.totalsOf(1L)).isEqualTo(new OrderTotals((long) threads * perThread, 100L * threads * perThread, 10L * threads * perThread));
+        assertThat(aggregator.totalsOf(Grade.VIP).count()).isEqualTo((long) threads * perThread);
+    }
+
+    @Test
+    @DisplayName("회원별 합계는 최대 회원 수를 넘지 않고, 등급별 합계는 밀려난 회원의 주문까지 센다.")
+    void boundedMembers() {
+        // given
+        OrderAggregator bounded = new OrderAggregator(100);
+
+        // when
+        for (long memberId = 1; memberId <= 1000; memberId++) {
+            bounded.record(memberId, Grade.BASIC, 1000, 0);
+        }
+
+        // then
+        assertThat(bounded.trackedMembers()).isLessThanOrEqualTo(100);
+        assertThat(bounded.evictions()).isGreaterThanOrEqualTo(900);
+        assertThat(bounded.totalsOf(1000L)).isEqualTo(new OrderTotals(1, 1000, 0));
+        assertThat(bounded.totalsOf(Grade.BASIC).count()).isEqualTo(1000);
+    }
+}
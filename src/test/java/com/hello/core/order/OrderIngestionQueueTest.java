@@ -0,0 +1,204 @@
+package com.hello.core.order;
+
+import com.hello.core.AppConfig;
+import com.hello.core.member.Grade;
+import com.hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderIngestionQueueTest {
+
+    @Test
+    @DisplayName("대기열에 넣은 주문을 작업 스레드가 묶어서 처리한다.")
+    void processQueuedOrders() throws Exception {
+        // given
+        AppConfig appConfig = new AppConfig();
+        appConfig.memberService().join(new Member(18_001L, "memberA", Grade.VIP));
+        OrderIngestionQueue ingestion = new OrderIngestionQueue(appConfig.orderService(), 1000, 2, 64, OverflowPolicy.REJECT, 0);
+
+        // when
+        List<CompletableFuture<Order>> futures = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            futures.add(ingestion.submit(18_001L, "item" + i, 10000));
+        }
+        CompletableFuture<Order> unknown = ingestion.submit(18_999L, "itemX", 10000);
+        ingestion.close();
+
+        // then
+        for (CompletableFuture<Order> future : futures) {
+            assertThat(future.get(5, TimeUnit.SECONDS).getDiscountPrice()).isEqualTo(1000);
+        }
+        assertThat(unknown.isCompletedExceptionally()).isTrue();
+        OrderIngestionQueue.IngestionStats stats = ingestion.stats();
+        assertThat(stats.completed()).isEqualTo(501);
+        assertThat(stats.waitTime().count()).isEqualTo(501);
+        assertThat(stats.depth()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 정책에 따라 거절하거나 가장 오래된 주문을 밀어낸다.")
+    void overflowPolicies() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        OrderService blocked = new AppConfig().orderService();
+        OrderService slowService = new SlowOrderService(blocked, release);
+        OrderIngestionQueue rejecting = new OrderIngestionQueue(slowService, 2, 1, 1, OverflowPolicy.REJECT, 0);
+        OrderIngestionQueue dropping = new OrderIngestionQueue(slowService, 2, 1, 1, OverflowPolicy.DROP_OLDEST, 0);
+
+        // when
+        List<CompletableFuture<Order>> rejectingFutures = fill(rejecting, 10);
+        List<CompletableFuture<Order>> droppingFutures = fill(dropping, 10);
+        release.countDown();
+        rejecting.close();
+        dropping.close();
+
+        // then
+        assertThat(rejecting.stats().rejected()).isGreaterThan(0);
+        assertThat(dropping.stats().dropped()).isGreaterThan(0);
+        assertThat(dropping.stats().rejected()).isEqualTo(0);
+        // 가장 늦게 넣은 주문은 밀려나지 않는다.
+        assertThatThrownBy(() -> droppingFutures.get(1).get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(droppingFutures.get(9).isCompletedExceptionally()).isFalse();
+        assertThat(rejectingFutures.get(9).isCompletedExceptionally()).isTrue();
+    }
+
+    @Test
+    @DisplayName("닫히는 도중에 넣은 주문도 처리되거나 거절되어 future 가 모두 완료된다.")
+    void submitWhileClosing() throws Exception {
+        // given
+        AppConfig appConfig = new AppConfig();
+        appConfig.memberService().join(new Member(18_002L, "memberB", Grade.BASIC));
+        OrderIngestionQueue ingestion = new OrderIngestionQueue(appConfig.orderService(), 100_000, 1, 64, OverflowPolicy.REJECT, 0);
+        List<CompletableFuture<Order>> futures = new ArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        Thread submitter = new Thread(() -> {
+            for (int i = 0; i < 50_000; i++) {
+                futures.add(ingestion.submit(18_002L, "item" + i, 1000));
+                started.countDown();
+            }
+        });
+
+        // when
+        submitter.start();
+        started.await();
+        ingestion.close();
+        submitter.join();
+
+        // then
+        for (CompletableFuture<Order> future : futures) {
+            assertThat(future.isDone()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("묶음 저장이 실패하면 한 건씩 다시 처리하지 않고 묶음의 주문을 모두 실패시킨다.")
+    void failBatchOnStoreError() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        FailingOrderService failing = new FailingOrderService(release);
+        OrderIngestionQueue ingestion = new OrderIngestionQueue(failing, 100, 1, 64, OverflowPolicy.REJECT, 0);
+
+        // when
+        CompletableFuture<Order> first = ingestion.submit(1L, "item0", 10000);
+        while (ingestion.stats().depth() > 0) {
+            Thread.sleep(1);
+        }
+        List<CompletableFuture<Order>> futures = new ArrayList<>();
+        for (int i = 1; i < 10; i++) {
+            futures.add(ingestion.submit(1L, "item" + i, 10000));
+        }
+        release.countDown();
+        ingestion.close();
+
+        // then
+        assertThat(first.get(5, TimeUnit.SECONDS).getItemName()).isEqualTo("item0");
+        for (CompletableFuture<Order> future : futures) {
+            assertThatThrownBy(future::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(failing.singleOrders).isEqualTo(1);
+    }
+
+    // 첫 주문을 작업 스레드가 꺼내 간 뒤에 나머지를 넣는다.
+    private static List<CompletableFuture<Order>> fill(OrderIngestionQueue ingestion, int count) throws InterruptedException {
+        List<CompletableFuture<Order>> futures = new ArrayList<>();
+        futures.add(ingestion.submit(1L, "item0", 10000));
+        while (ingestion.stats().depth() > 0) {
+            Thread.sleep(1);
+        }
+        for (int i = 1; i < count; i++) {
+            futures.add(ingestion.submit(1L, "item" + i, 10000));
+        }
+        return futures;
+    }
+
+    // 첫 주문을 release 전까지 붙잡아서 대기열이 차게 만든다.
+    static class SlowOrderService implements OrderService {
+        private final OrderService delegate;
+        private final CountDownLatch release;
+
+        SlowOrderService(OrderService delegate, CountDownLatch release) {
+            this.delegate = delegate;
+            this.release = release;
+        }
+
+        @Override
+        public Order createOrder(Long memberId, String itemName, int itemPrice) {
+            return createOrder(memberId.longValue(), itemName, itemPrice);
+        }
+
+        @Override
+        public Order createOrder(long memberId, String itemName, int itemPrice) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Order(memberId, itemName, itemPrice, 0);
+        }
+
+        @Override
+        public OrderBatch createOrders(List<OrderRequest> requests) {
+            return delegate.createOrders(requests);
+        }
+
+        @Override
+        public PriceQuote quote(long memberId, int itemPrice, PriceQuote out) {
+            return delegate.quote(memberId, itemPrice, out);
+        }
+    }
+
+    // 한 건 주문은 release 전까지 붙잡고, 묶음 주문은 저장 실패로 던진다.
+    static class FailingOrderService extends SlowOrderService {
+        volatile int singleOrders;
+
+        FailingOrderService(CountDownLatch release) {
+            super(null, release);
+        }
+
+        @Override
+        public Order createOrder(long memberId, String itemName, int itemPrice) {
+            singleOrders++;
+            return super.createOrder(memberId, itemName, itemPrice);
+        }
+
+        @Override
+        public OrderBatch createOrders(List<OrderRequest> requests) {
+            throw new IllegalStateException("주문 저장 실패");
+        }
+    }
+}
@@ -9,6 +9,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.assertj.core.api.Assertions;
 
+import java.util.List;
+
 public class OrderServiceTest {
 
     MemberService memberService;
@@ -32,4 +34,43 @@ public class OrderServiceTest {
 
         Assertions.assertThat(order.getDiscountPrice()).isEqualTo(1000);
     }
+
+    @Test
+    void createOrders() {
+        memberService.join(new Member(1L, "memberA", Grade.VIP));
+        memberService.join(new Member(2L, "memberB", Grade.BASIC));
+
+        OrderBatch batch = orderService.createOrders(List.of(
+                new OrderRequest(2L, "itemA", 10000),
+                new OrderRequest(1L, "itemB", 20000),
+                new OrderRequest(2L, "itemC", 30000)));
+
+        Assertions.assertThat(batch.size()).isEqualTo(3);
+        Assertions.assertThat(batch.getItemName(1)).isEqualTo("itemB");
+        Assertions.assertThat(batch.getDiscountPrice(0)).isEqualTo(0);
+        Assertions.assertThat(batch.getDiscountPrice(1)).isEqualTo(2000);
+        Assertions.assertThat(batch.totalPrice()).isEqualTo(58000);
+    }
+
+    @Test
+    void createOrdersWithUnknownMember() {
+        memberService.join(new Member(1L, "memberA", Grade.VIP));
+
+        Assertions.assertThatThrownBy(() -> orderService.createOrders(List.of(
+                        new OrderRequest(1L, "itemA", 10000),
+                        new OrderRequest(404L, "itemB", 10000))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void quote() {
+        memberService.join(new Member(1L, "memberA", Grade.VIP));
+        PriceQuote quote = new PriceQuote();
+
+        PriceQuote result = orderService.quote(1L, 20000, quote);
+
+        Assertions.assertThat(result).isSameAs(quote);
+        Assertions.assertThat(quote.getDiscountPrice()).isEqualTo(2000);
+        Assertions.assertThat(quote.calculatePrice()).isEqualTo(18000);
+    }
 }
@@ -0,0 +1,139 @@
+package com.hello.core.order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentedOrderRepositoryTest {
+
+    static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @TempDir
+    Path directory;
+
+    ManualClock clock = new ManualClock();
+
+    @Test
+    @DisplayName("구간이 바뀌면 새 세그먼트에 쓰고, 회원별/시간 범위로 조회한다.")
+    void findByMemberIdAndTime() {
+        try (SegmentedOrderRepository orderRepository = open(directory)) {
+            // given
+            for (int hour = 0; hour < 3; hour++) {
+                clock.millis = hour * HOUR + 10;
+                orderRepository.save(new Order(1L, "item" + hour, 10000, 1000));
+                orderRepository.save(new Order(2L, "other" + hour, 5000, 0));
+            }
+
+            // when
+            List<Order> all = orderRepository.findByMemberId(1L, 0, 3 * HOUR);
+            List<Order> secondHour = orderRepository.findByMemberId(1L, HOUR, 2 * HOUR);
+
+            // then
+            assertThat(orderRepository.segmentCount()).isEqualTo(3);
+            assertThat(all).extracting(Order::getItemName).containsExactly("item0", "item1", "item2");
+            assertThat(secondHour).extracting(Order::getItemName).containsExactly("item1");
+        }
+    }
+
+    @Test
+    @DisplayName("닫았다 다시 열면 세그먼트 색인으로 조회한다.")
+    void reopen() {
+        // given
+        try (SegmentedOrderRepository orderRepository = open(directory)) {
+            for (int i = 0; i < 1000; i++) {
+                clock.millis = i * 60_000L;
+                orderRepository.save(new Order((long) (i % 10), "item" + i, 1000 + i, 0));
+            }
+        }
+
+        // when
+        try (SegmentedOrderRepository orderRepository = open(directory)) {
+            List<Order> orders = orderRepository.findByMemberId(3L, 0, Long.MAX_VALUE);
+
+            // then
+            assertThat(orders).hasSize(100);
+            assertThat(orders.get(0).getItemName()).isEqualTo("item3");
+            assertThat(orders.get(99).getItemName()).isEqualTo("item993");
+        }
+    }
+
+    @Test
+    @DisplayName("기준 시각 이전 구간의 세그먼트만 지운다.")
+    void dropBefore() {
+        try (SegmentedOrderRepository orderRepository = open(directory)) {
+            // given
+            for (int hour = 0; hour < 4; hour++) {
+                clock.millis = hour * HOUR;
+                orderRepository.save(new Order(1L, "item" + hour, 10000, 0));
+            }
+
+            // when
+            int dropped = orderRepository.dropBefore(2 * HOUR);
+
+            // then
+            assertThat(dropped).isEqualTo(2);
+            assertThat(orderRepository.findByMemberId(1L, 0, Long.MAX_VALUE))
+                    .extracting(Order::getItemName).containsExactly("item2", "item3");
+        }
+    }
+
+    @Test
+    @DisplayName("세그먼트보다 큰 레코드가 섞인 일괄 저장은 아무것도 쓰지 않고 실패하고, 저장소는 계속 쓸 수 있다.")
+    void oversizedRecord() {
+        try (SegmentedOrderRepository orderRepository = open(directory)) {
+            // given
+            String huge = "x".repeat(64 * 1024);
+            OrderBatch batch = new OrderBatch(new long[]{1L, 1L}, new String[]{"item", huge}, new int[]{1000, 1000}, new int[]{0, 0});
+
+            // when
+            assertThatThrownBy(() -> orderRepository.saveAll(batch)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> orderRepository.save(new Order(1L, huge, 1000, 0))).isInstanceOf(IllegalArgumentException.class);
+            orderRepository.save(new Order(1L, "after", 1000, 0));
+            clock.millis = HOUR;
+            orderRepository.save(new Order(1L, "nextHour", 1000, 0));
+
+            // then
+            assertThat(orderRepository.findByMemberId(1L, 0, Long.MAX_VALUE))
+                    .extracting(Order::getItemName).containsExactly("after", "nextHour");
+        }
+    }
+
+    private SegmentedOrderRepository open(Path path) {
+        return new SegmentedOrderRepository(path, Duration.ofHours(1), 64 * 1024, clock);
+    }
+
+    static class ManualClock extends Clock {
+        long millis;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}